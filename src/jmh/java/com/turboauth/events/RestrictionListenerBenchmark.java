@@ -0,0 +1,85 @@
+package com.turboauth.events;
+
+import com.turboauth.auth.AuthStateRegistry;
+import com.turboauth.config.ConfigManager;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.plugin.RegisteredListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one PlayerMoveEvent dispatch through its handler list, the way
+ * the plugin manager calls each registered listener:
+ * <ul>
+ *   <li>unregistered - everyone is logged in, so the listener is not registered</li>
+ *   <li>authenticated - registered (someone else is unauthenticated), the moving player is logged in</li>
+ *   <li>frozen - registered and the moving player is frozen, moving inside their block</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestrictionListenerBenchmark {
+
+    @Param({"unregistered", "authenticated", "frozen"})
+    private String state;
+
+    private HandlerList handlers;
+    private PlayerMoveEvent event;
+
+    @Setup
+    public void setup() {
+        // The move handler only reads this setting, no config file is needed
+        ConfigManager configManager = new ConfigManager(null) {
+            @Override
+            public boolean isFreezeEnabled() {
+                return true;
+            }
+        };
+
+        UUID uuid = UUID.randomUUID();
+        AuthStateRegistry authStates = new AuthStateRegistry();
+        authStates.markUnauthenticated("frozen".equals(state) ? uuid : UUID.randomUUID());
+
+        handlers = new HandlerList();
+        if (!"unregistered".equals(state)) {
+            RestrictionListener listener = new RestrictionListener(null, authStates, configManager);
+            handlers.register(new RegisteredListener(listener,
+                (target, moveEvent) -> ((RestrictionListener) target).onPlayerMove((PlayerMoveEvent) moveEvent),
+                EventPriority.HIGHEST, null, false));
+        }
+
+        Player player = (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[]{Player.class},
+            (proxy, method, args) -> "getUniqueId".equals(method.getName()) ? uuid : null);
+        event = new PlayerMoveEvent(player, new Location(null, 0.2, 64, 0.2), new Location(null, 0.3, 64, 0.2));
+    }
+
+    @Benchmark
+    public PlayerMoveEvent dispatchMove() throws EventException {
+        for (RegisteredListener listener : handlers.getRegisteredListeners()) {
+            listener.callEvent(event);
+        }
+        return event;
+    }
+}
@@ -0,0 +1,80 @@
+package com.turboauth.storage;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Random;
+
+/**
+ * Measures the heap retained per account, as loaded by a full startup
+ * load. Not a JMH benchmark, run it through the jmh profile with
+ *
+ * <pre>mvn -Pjmh test-compile exec:exec -Djmh.main=com.turboauth.storage.AccountFootprint -Djmh.args=1000000</pre>
+ *
+ * Prints the bytes per account for the PlayerData records alone (without
+ * the password hash), with the password hash, and with the account cache
+ * and username index entries that hold them. Exits with status 1 when the
+ * last figure is above the {@value #TARGET_BYTES_PER_ACCOUNT} byte target
+ * stated on PlayerData.
+ */
+public final class AccountFootprint {
+
+    private static final int TARGET_BYTES_PER_ACCOUNT = 448;
+
+    private AccountFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int accounts = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String sharedPassword = Accounts.passwordHash(new Random(0));
+
+        long baseline = usedHeap();
+        StorageManager.PlayerData[] records = new StorageManager.PlayerData[accounts];
+        long arrayBytes = usedHeap() - baseline;
+
+        Random random = new Random(42);
+        for (int i = 0; i < accounts; i++) {
+            records[i] = Accounts.create(random, i);
+            records[i].setPassword(sharedPassword);
+        }
+        long withoutPassword = usedHeap() - baseline - arrayBytes;
+
+        random = new Random(43);
+        for (StorageManager.PlayerData data : records) {
+            data.setPassword(Accounts.passwordHash(random));
+        }
+        long withPassword = usedHeap() - baseline - arrayBytes;
+
+        AccountCache cache = new AccountCache(accounts);
+        UsernameIndex index = new UsernameIndex();
+        for (StorageManager.PlayerData data : records) {
+            cache.put(data.getUuid(), data);
+            index.claim(data.getUsername(), data.getUuid());
+        }
+        long withIndexes = usedHeap() - baseline - arrayBytes;
+
+        System.out.printf("%d accounts%n", accounts);
+        System.out.printf("  PlayerData without password: %6.1f bytes/account%n", (double) withoutPassword / accounts);
+        System.out.printf("  PlayerData with password:    %6.1f bytes/account%n", (double) withPassword / accounts);
+        System.out.printf("  plus cache and name index:   %6.1f bytes/account%n", (double) withIndexes / accounts);
+
+        // Keep everything reachable until the last measurement
+        if (records[accounts - 1] == null || cache.size() != index.size()) {
+            throw new IllegalStateException();
+        }
+
+        if ((double) withIndexes / accounts > TARGET_BYTES_PER_ACCOUNT) {
+            System.err.printf("Above the target of %d bytes/account%n", TARGET_BYTES_PER_ACCOUNT);
+            System.exit(1);
+        }
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+}
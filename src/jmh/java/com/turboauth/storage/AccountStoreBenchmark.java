@@ -0,0 +1,151 @@
+package com.turboauth.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * The account engines at 100k and 1M accounts: a full load and a username
+ * scan as done at startup (eager and lazy mode), a single lookup as done on
+ * join, and a write-behind batch of login updates. The startup scans open a
+ * second handle on the same files, so they measure parsing with the files
+ * in the page cache rather than disk reads. Populating 1M YAML files takes
+ * several minutes.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class AccountStoreBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger("AccountStoreBenchmark");
+    private static final int POPULATE_BATCH = 1000;
+    private static final int WRITE_BATCH = 100;
+
+    @Param({"yaml", "sqlite", "log"})
+    private String engine;
+
+    @Param({"100000", "1000000"})
+    private int accounts;
+
+    private Path directory;
+    private AccountStore store;
+    private UUID[] uuids;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("turboauth-" + engine);
+        random = new Random(42);
+        uuids = new UUID[accounts];
+
+        store = createStore();
+        store.open();
+
+        List<StorageManager.PlayerData> batch = new ArrayList<>(POPULATE_BATCH);
+        for (int i = 0; i < accounts; i++) {
+            StorageManager.PlayerData data = Accounts.create(random, i);
+            uuids[i] = data.getUuid();
+            batch.add(data);
+            if (batch.size() == POPULATE_BATCH) {
+                store.saveAll(batch);
+                batch.clear();
+            }
+        }
+        store.saveAll(batch);
+        store.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<UUID, StorageManager.PlayerData> startupLoadAll() throws IOException {
+        AccountStore startup = createStore();
+        try {
+            startup.open();
+            return startup.loadAll();
+        } finally {
+            startup.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<UUID, String> startupLoadUsernames() throws IOException {
+        AccountStore startup = createStore();
+        try {
+            startup.open();
+            return startup.loadUsernames();
+        } finally {
+            startup.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public StorageManager.PlayerData loadOne() throws IOException {
+        return store.load(uuids[random.nextInt(accounts)]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void saveLoginBatch() throws IOException {
+        List<StorageManager.PlayerData> batch = new ArrayList<>(WRITE_BATCH);
+        for (int i = 0; i < WRITE_BATCH; i++) {
+            int index = random.nextInt(accounts);
+            StorageManager.PlayerData data = Accounts.create(random, index);
+            data.setUuid(uuids[index]);
+            batch.add(data);
+        }
+        store.saveAll(batch);
+    }
+
+    private AccountStore createStore() {
+        if ("yaml".equals(engine)) {
+            return new YamlAccountStore(LOGGER, directory.toFile());
+        }
+
+        if ("sqlite".equals(engine)) {
+            return new SqlAccountStore(new File(directory.toFile(), "accounts.db"), 4);
+        }
+
+        return new LogAccountStore(LOGGER, new File(directory.toFile(), "accounts.dat"), 0.5);
+    }
+}
@@ -0,0 +1,39 @@
+package com.turboauth.storage;
+
+import java.util.Base64;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Builds account records shaped like real ones: a PBKDF2 hash of the
+ * stored length, both timestamps and an IPv4 address.
+ */
+final class Accounts {
+
+    private static final long FIRST_REGISTRATION = 1_600_000_000L;
+
+    private Accounts() {
+    }
+
+    static StorageManager.PlayerData create(Random random, int index) {
+        StorageManager.PlayerData data = new StorageManager.PlayerData();
+        data.setUuid(new UUID(random.nextLong(), random.nextLong()));
+        data.setUsername("Player" + index);
+        data.setPassword(passwordHash(random));
+        data.setRegistrationTime(FIRST_REGISTRATION + random.nextInt(100_000_000));
+        data.setLastLoginTime(data.getRegistrationTime() + random.nextInt(10_000_000));
+        data.setLastAddress(new byte[]{(byte) random.nextInt(256), (byte) random.nextInt(256),
+            (byte) random.nextInt(256), (byte) random.nextInt(256)});
+        return data;
+    }
+
+    static String passwordHash(Random random) {
+        byte[] salt = new byte[16];
+        byte[] hash = new byte[32];
+        random.nextBytes(salt);
+        random.nextBytes(hash);
+
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return "$pbkdf2-sha256$310000$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+}
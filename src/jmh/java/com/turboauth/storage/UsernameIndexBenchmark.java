@@ -0,0 +1,83 @@
+package com.turboauth.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name lookup through UsernameIndex against the scan over every PlayerData
+ * it replaced. Names are looked up in a different case than registered, as
+ * typed by players.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UsernameIndexBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int accounts;
+
+    private UsernameIndex index;
+    private Map<UUID, StorageManager.PlayerData> players;
+    private String[] lookups;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        index = new UsernameIndex();
+        players = new HashMap<>(accounts * 2);
+
+        for (int i = 0; i < accounts; i++) {
+            StorageManager.PlayerData data = new StorageManager.PlayerData();
+            data.setUuid(new UUID(random.nextLong(), random.nextLong()));
+            data.setUsername("Player" + i);
+            players.put(data.getUuid(), data);
+            index.claim(data.getUsername(), data.getUuid());
+        }
+
+        lookups = new String[1024];
+        for (int i = 0; i < lookups.length; i++) {
+            lookups[i] = ("Player" + random.nextInt(accounts)).toUpperCase(Locale.ROOT);
+        }
+    }
+
+    @Benchmark
+    public UUID indexLookup() {
+        return index.get(nextLookup());
+    }
+
+    @Benchmark
+    public UUID linearScan() {
+        String username = nextLookup();
+        for (StorageManager.PlayerData data : players.values()) {
+            if (username.equalsIgnoreCase(data.getUsername())) {
+                return data.getUuid();
+            }
+        }
+        return null;
+    }
+
+    private String nextLookup() {
+        next = (next + 1) & (lookups.length - 1);
+        return lookups[next];
+    }
+}
@@ -0,0 +1,99 @@
+package com.turboauth.utils;
+
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering the default wrong-password message with its two placeholders:
+ * <ul>
+ *   <li>regexColorize - String.replace on the placeholders, then the 23
+ *   replaceAll passes MessageUtils.colorize used to run on every send</li>
+ *   <li>parseEachSend - the single pass colorize and a MiniMessage parse on
+ *   every send, what sending components would cost without templates</li>
+ *   <li>templateRender - filling the template compiled at config load</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageTemplateBenchmark {
+
+    private static final String WRONG_PASSWORD = "&c&l✗ &7Wrong password! &7(&e{attempts}&7/&e{max}&7)";
+
+    private MessageTemplate template;
+    private int attempt;
+
+    @Setup
+    public void setup() {
+        template = MessageTemplate.compile(WRONG_PASSWORD);
+    }
+
+    @Benchmark
+    public String regexColorize() {
+        return regexColorize(WRONG_PASSWORD
+            .replace("{attempts}", nextAttempt())
+            .replace("{max}", "5"));
+    }
+
+    @Benchmark
+    public Component parseEachSend() {
+        return MessageTemplate.parse(WRONG_PASSWORD
+            .replace("{attempts}", nextAttempt())
+            .replace("{max}", "5"));
+    }
+
+    @Benchmark
+    public Component templateRender() {
+        return template.render("attempts", nextAttempt(), "max", "5");
+    }
+
+    private String nextAttempt() {
+        attempt = attempt % 5 + 1;
+        return Integer.toString(attempt);
+    }
+
+    private static String regexColorize(String message) {
+        message = message.replaceAll("&", "§");
+        message = message.replaceAll("§#([A-Fa-f0-9]{6})", "<#$1>");
+
+        message = message.replaceAll("§0", "<black>");
+        message = message.replaceAll("§1", "<dark_blue>");
+        message = message.replaceAll("§2", "<dark_green>");
+        message = message.replaceAll("§3", "<dark_aqua>");
+        message = message.replaceAll("§4", "<dark_red>");
+        message = message.replaceAll("§5", "<dark_purple>");
+        message = message.replaceAll("§6", "<gold>");
+        message = message.replaceAll("§7", "<gray>");
+        message = message.replaceAll("§8", "<dark_gray>");
+        message = message.replaceAll("§9", "<blue>");
+        message = message.replaceAll("§a", "<green>");
+        message = message.replaceAll("§b", "<aqua>");
+        message = message.replaceAll("§c", "<red>");
+        message = message.replaceAll("§d", "<light_purple>");
+        message = message.replaceAll("§e", "<yellow>");
+        message = message.replaceAll("§f", "<white>");
+
+        message = message.replaceAll("§k", "<obfuscated>");
+        message = message.replaceAll("§l", "<bold>");
+        message = message.replaceAll("§m", "<strikethrough>");
+        message = message.replaceAll("§n", "<underline>");
+        message = message.replaceAll("§o", "<italic>");
+        message = message.replaceAll("§r", "<reset>");
+
+        return message;
+    }
+}
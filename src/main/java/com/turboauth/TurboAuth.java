@@ -1,10 +1,17 @@
 package com.turboauth;
 
+import com.turboauth.api.AuthStateService;
 import com.turboauth.auth.AuthManager;
+import com.turboauth.auth.AuthStateRegistry;
 import com.turboauth.commands.TurboAuthCommand;
 import com.turboauth.config.ConfigManager;
 import com.turboauth.events.PlayerEvents;
+import com.turboauth.events.RestrictionListener;
+import com.turboauth.security.AdmissionController;
+import com.turboauth.security.IpBanManager;
 import com.turboauth.storage.StorageManager;
+import com.turboauth.utils.ActionBarAnimator;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
 public final class TurboAuth extends JavaPlugin {
@@ -12,17 +19,30 @@ public final class TurboAuth extends JavaPlugin {
     private ConfigManager configManager;
     private StorageManager storageManager;
     private AuthManager authManager;
+    private IpBanManager ipBanManager;
+    private AdmissionController admissionController;
+    private RestrictionListener restrictionListener;
+    private ActionBarAnimator actionBarAnimator;
 
     @Override
     public void onEnable() {
         this.configManager = new ConfigManager(this);
         this.configManager.initConfig();
 
+        this.actionBarAnimator = new ActionBarAnimator(this, configManager);
+
         this.storageManager = new StorageManager(this);
         this.storageManager.initStorage();
         this.storageManager.loadData();
 
+        this.ipBanManager = new IpBanManager(this);
+        this.ipBanManager.load();
+
+        this.admissionController = new AdmissionController(this);
+        this.admissionController.start();
+
         this.authManager = new AuthManager(this, configManager, storageManager);
+        getServer().getServicesManager().register(AuthStateService.class, authManager.getAuthStateRegistry(), this, ServicePriority.Normal);
 
         registerCommands();
         registerEvents();
@@ -32,12 +52,27 @@ public final class TurboAuth extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        getServer().getServicesManager().unregisterAll(this);
+
         if (authManager != null) {
-            authManager.stopAllTasks();
+            authManager.shutdown();
+        }
+
+        if (admissionController != null) {
+            admissionController.stop();
+        }
+
+        if (actionBarAnimator != null) {
+            actionBarAnimator.stopAll();
+        }
+
+        if (ipBanManager != null) {
+            ipBanManager.shutdown();
         }
 
         if (storageManager != null) {
             storageManager.saveAllData();
+            storageManager.closeStorage();
         }
 
         getLogger().info("TurboAuth disabled.");
@@ -62,6 +97,13 @@ public final class TurboAuth extends JavaPlugin {
 
     private void registerEvents() {
         getServer().getPluginManager().registerEvents(new PlayerEvents(this, authManager, configManager, storageManager), this);
+
+        AuthStateRegistry authStates = authManager.getAuthStateRegistry();
+        this.restrictionListener = new RestrictionListener(this, authStates, configManager);
+        authStates.setTransitionListeners(restrictionListener::register, restrictionListener::unregister);
+        if (authStates.getUnauthenticatedCount() > 0) {
+            restrictionListener.register();
+        }
     }
 
     public ConfigManager getConfigManager() {
@@ -75,4 +117,20 @@ public final class TurboAuth extends JavaPlugin {
     public AuthManager getAuthManager() {
         return authManager;
     }
+
+    public ActionBarAnimator getActionBarAnimator() {
+        return actionBarAnimator;
+    }
+
+    public RestrictionListener getRestrictionListener() {
+        return restrictionListener;
+    }
+
+    public IpBanManager getIpBanManager() {
+        return ipBanManager;
+    }
+
+    public AdmissionController getAdmissionController() {
+        return admissionController;
+    }
 }
@@ -0,0 +1,12 @@
+package com.turboauth.api;
+
+public enum AuthState {
+    AUTHENTICATED,
+    UNAUTHENTICATED,
+    LOGGING_IN,
+    REGISTERING;
+
+    public boolean isAuthenticated() {
+        return this == AUTHENTICATED;
+    }
+}
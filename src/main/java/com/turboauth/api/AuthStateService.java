@@ -0,0 +1,25 @@
+package com.turboauth.api;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Read-only view of who is logged in, registered with the Bukkit
+ * ServicesManager. Safe to call from any thread:
+ * <pre>
+ * AuthStateService auth = Bukkit.getServicesManager().load(AuthStateService.class);
+ * if (auth != null &amp;&amp; !auth.isAuthenticated(player.getUniqueId())) { ... }
+ * </pre>
+ * Players that are offline or unknown count as authenticated, so only
+ * online players waiting to log in or register are reported otherwise.
+ */
+public interface AuthStateService {
+
+    boolean isAuthenticated(UUID uuid);
+
+    AuthState getState(UUID uuid);
+
+    int getUnauthenticatedCount();
+
+    Set<UUID> getUnauthenticatedPlayers();
+}
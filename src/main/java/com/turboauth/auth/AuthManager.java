@@ -1,7 +1,10 @@
 package com.turboauth.auth;
 
 import com.turboauth.TurboAuth;
+import com.turboauth.api.AuthState;
 import com.turboauth.config.ConfigManager;
+import com.turboauth.security.AdmissionController;
+import com.turboauth.security.LoginThrottle;
 import com.turboauth.storage.StorageManager;
 import com.turboauth.utils.AnimationUtils;
 import com.turboauth.utils.MessageUtils;
@@ -10,65 +13,185 @@ import org.bukkit.Sound;
 import org.bukkit.entity.Player;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
 
-import java.time.LocalDateTime;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 public class AuthManager {
 
+    private static final float DEFAULT_WALK_SPEED = 0.2f;
+    private static final float DEFAULT_FLY_SPEED = 0.1f;
+
     private final TurboAuth plugin;
     private final ConfigManager configManager;
     private final StorageManager storageManager;
     private final AnimationUtils animationUtils;
     private final MessageUtils messageUtils;
+    private final PasswordHasher passwordHasher;
+    private final Executor mainThread;
 
-    private final Map<UUID, Integer> failedAttempts;
-    private final Map<UUID, LocalDateTime> lastAttempt;
-    private final Map<UUID, BukkitTask> reminderTasks;
+    private final LoginThrottle loginThrottle;
+    private final SessionCache sessionCache;
+    private final BukkitTask cleanupTask;
+    private final ReminderScheduler reminderScheduler;
+    private final LoginTimeoutScheduler loginTimeouts;
+    private final Map<UUID, float[]> frozenSpeeds;
+    private final AuthStateRegistry authStates;
 
     public AuthManager(TurboAuth plugin, ConfigManager configManager, StorageManager storageManager) {
         this.plugin = plugin;
         this.configManager = configManager;
         this.storageManager = storageManager;
 
+        this.mainThread = plugin.getServer().getScheduler().getMainThreadExecutor(plugin);
         this.messageUtils = new MessageUtils(configManager);
         this.animationUtils = new AnimationUtils(plugin, configManager, messageUtils);
+        this.passwordHasher = new PasswordHasher(configManager.getHashThreads(), configManager.getHashQueueSize(),
+            configManager.getHashIterations());
+
+        int iterations = passwordHasher.calibrate(configManager.getHashTargetMillis());
+        plugin.getLogger().info("Password hashing uses " + iterations + " PBKDF2 rounds, about " +
+            Math.round(passwordHasher.getVerifiesPerSecond()) + " logins/s on " + passwordHasher.getThreads() + " threads");
+
+        this.loginThrottle = new LoginThrottle(configManager.getAttemptCooldown(), configManager.getMaxLoginAttempts(),
+            configManager.getIpMaxFailures(), configManager.getIpFailureRefill(), configManager.getGlobalLoginBurst(),
+            configManager.getGlobalLoginsPerSecond(), configManager.getRateLimitMaxEntries());
+
+        this.sessionCache = new SessionCache();
+        if (configManager.isSessionPersistence()) {
+            sessionCache.load(new File(plugin.getDataFolder(), "sessions.yml"));
+        }
 
-        this.failedAttempts = new HashMap<>();
-        this.lastAttempt = new HashMap<>();
-        this.reminderTasks = new HashMap<>();
+        this.cleanupTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+            loginThrottle.cleanup();
+            sessionCache.cleanup();
+        }, 1200L, 1200L);
+
+        this.frozenSpeeds = new HashMap<>();
+        this.authStates = new AuthStateRegistry();
+        this.reminderScheduler = new ReminderScheduler(plugin, configManager, authStates);
+        this.loginTimeouts = new LoginTimeoutScheduler(plugin, configManager, authStates);
+
+        // Players still waiting to log in when the plugin was reloaded
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            if (storageManager.getSavedLocation(player.getUniqueId()) != null) {
+                authStates.markUnauthenticated(player.getUniqueId());
+                loginTimeouts.arm(player);
+            }
+        }
     }
 
-    public boolean registerPlayer(Player player, String password, String confirmPassword) {
+    public CompletableFuture<AuthResult> registerPlayer(Player player, String password, String confirmPassword) {
+        UUID uuid = player.getUniqueId();
+
         if (!PermissionUtils.hasPermission(player, "turboauth.register")) {
-            messageUtils.sendMessage(player, "&c&l✗ &7You don't have permission to register!");
-            return false;
+            return CompletableFuture.completedFuture(completeRegistration(player, AuthResult.NO_PERMISSION));
+        }
+
+        if (!plugin.getAdmissionController().canRegister(getInetAddress(player))) {
+            return CompletableFuture.completedFuture(completeRegistration(player, AuthResult.REGISTRATION_LIMIT));
+        }
+
+        if (authStates.isAuthenticated(uuid)) {
+            return CompletableFuture.completedFuture(completeRegistration(player, AuthResult.ALREADY_AUTHENTICATED));
+        }
+
+        if (!authStates.beginAttempt(uuid, AuthState.REGISTERING)) {
+            return CompletableFuture.completedFuture(completeRegistration(player, AuthResult.IN_PROGRESS));
+        }
+
+        return storageManager.playerExistsAsync(uuid)
+            .thenCompose(exists -> {
+                if (exists) {
+                    return CompletableFuture.completedFuture(AuthResult.ALREADY_REGISTERED);
+                }
+
+                if (!password.equals(confirmPassword)) {
+                    return CompletableFuture.completedFuture(AuthResult.PASSWORD_MISMATCH);
+                }
+
+                if (password.length() < 3) {
+                    return CompletableFuture.completedFuture(AuthResult.PASSWORD_TOO_SHORT);
+                }
+
+                return passwordHasher.hashAsync(password)
+                    .thenApplyAsync(hash -> createAccount(player, hash), mainThread);
+            })
+            .exceptionally(this::failureResult)
+            .thenApplyAsync(result -> {
+                authStates.endAttempt(uuid, AuthState.REGISTERING);
+                return completeRegistration(player, result);
+            }, mainThread);
+    }
+
+    private AuthResult createAccount(Player player, String passwordHash) {
+        if (!player.isOnline()) {
+            return AuthResult.ERROR;
         }
 
         if (storageManager.playerExists(player.getUniqueId())) {
-            messageUtils.sendMessage(player, configManager.getMessage("messages.register-fail-already"));
-            return false;
+            return AuthResult.ALREADY_REGISTERED;
         }
 
-        if (!password.equals(confirmPassword)) {
-            messageUtils.sendMessage(player, configManager.getMessage("messages.register-fail-mismatch"));
-            return false;
+        if (!storageManager.createPlayerData(player, passwordHash)) {
+            return AuthResult.NAME_TAKEN;
         }
 
-        if (password.length() < 3) {
-            messageUtils.sendMessage(player, "&c&l✗ &7Password must be at least 3 characters long!");
-            return false;
+        plugin.getAdmissionController().recordRegistration(getInetAddress(player));
+        return AuthResult.SUCCESS;
+    }
+
+    private AuthResult completeRegistration(Player player, AuthResult result) {
+        if (!player.isOnline()) {
+            return result;
         }
 
-        storageManager.createPlayerData(player, password);
+        switch (result) {
+            case SUCCESS:
+                handleSuccessfulRegistration(player);
+                break;
+            case NO_PERMISSION:
+                messageUtils.sendConfigMessage(player, "messages.register-fail-permission");
+                break;
+            case ALREADY_REGISTERED:
+                messageUtils.sendConfigMessage(player, "messages.register-fail-already");
+                break;
+            case PASSWORD_MISMATCH:
+                messageUtils.sendConfigMessage(player, "messages.register-fail-mismatch");
+                break;
+            case PASSWORD_TOO_SHORT:
+                messageUtils.sendConfigMessage(player, "messages.register-fail-too-short");
+                break;
+            case NAME_TAKEN:
+                messageUtils.sendConfigMessage(player, "messages.register-fail-name-taken", "name", player.getName());
+                break;
+            case REGISTRATION_LIMIT:
+                messageUtils.sendConfigMessage(player, "messages.register-fail-limit");
+                break;
+            default:
+                sendPipelineMessage(player, result);
+                break;
+        }
+
+        return result;
+    }
 
-        messageUtils.sendMessage(player, configManager.getMessage("messages.register-success"));
+    private void handleSuccessfulRegistration(Player player) {
+        messageUtils.sendConfigMessage(player, "messages.register-success");
 
-        if (configManager.getConfig().getBoolean("sounds.enabled")) {
+        if (effectsEnabled()) {
             try {
                 Sound sound = Sound.valueOf(configManager.getConfig().getString("sounds.register-success"));
                 player.playSound(player.getLocation(), sound, 1.0f, 1.0f);
@@ -77,64 +200,151 @@ public class AuthManager {
             }
         }
 
-        animationUtils.showSuccessAnimation(player);
+        if (!plugin.getAdmissionController().isAttackMode()) {
+            animationUtils.showSuccessAnimation(player);
+        }
 
         if (configManager.isAutoLogin()) {
-            loginPlayer(player, password);
+            // The password was just set, no need to hash it a second time
+            handleSuccessfulLogin(player);
         } else {
             startReminderTask(player);
         }
-
-        return true;
     }
 
-    public boolean loginPlayer(Player player, String password) {
+    public CompletableFuture<AuthResult> loginPlayer(Player player, String password) {
+        UUID uuid = player.getUniqueId();
+
         if (!PermissionUtils.hasPermission(player, "turboauth.login")) {
-            messageUtils.sendMessage(player, "&c&l✗ &7You don't have permission to login!");
-            return false;
+            return CompletableFuture.completedFuture(completeLogin(player, AuthResult.NO_PERMISSION));
         }
 
-        if (!storageManager.playerExists(player.getUniqueId())) {
-            messageUtils.sendMessage(player, configManager.getMessage("messages.login-fail-not-registered"));
-            return false;
+        if (isOnCooldown(player)) {
+            return CompletableFuture.completedFuture(completeLogin(player, AuthResult.COOLDOWN));
         }
 
-        if (isOnCooldown(player)) {
-            int remainingSeconds = getRemainingCooldown(player);
-            messageUtils.sendMessage(player, "&c&l✗ &7Please wait &e" + remainingSeconds + " &7seconds before trying again!");
-            return false;
+        if (authStates.isAuthenticated(uuid)) {
+            return CompletableFuture.completedFuture(completeLogin(player, AuthResult.ALREADY_AUTHENTICATED));
         }
 
-        StorageManager.PlayerData playerData = storageManager.getPlayerData(player.getUniqueId());
-        if (playerData == null || !playerData.getPassword().equals(password)) {
-            handleFailedLogin(player);
-            return false;
+        if (!authStates.beginAttempt(uuid, AuthState.LOGGING_IN)) {
+            return CompletableFuture.completedFuture(completeLogin(player, AuthResult.IN_PROGRESS));
         }
 
-        handleSuccessfulLogin(player);
-        return true;
+        return storageManager.getPlayerDataAsync(uuid)
+            .thenCompose(playerData -> {
+                if (playerData == null) {
+                    return CompletableFuture.completedFuture(AuthResult.NOT_REGISTERED);
+                }
+
+                // Only attempts that reach a password check use up the global budget
+                if (!loginThrottle.tryAcquireGlobal()) {
+                    return CompletableFuture.completedFuture(AuthResult.SERVER_BUSY);
+                }
+
+                String storedPassword = playerData.getPassword();
+                CompletableFuture<Boolean> verification;
+                try {
+                    verification = passwordHasher.verifyAsync(password, storedPassword);
+                } catch (RejectedExecutionException e) {
+                    loginThrottle.releaseGlobal();
+                    return CompletableFuture.completedFuture(AuthResult.SERVER_BUSY);
+                }
+
+                return verification.thenApply(matches -> {
+                    if (!matches) {
+                        return AuthResult.WRONG_PASSWORD;
+                    }
+
+                    if (passwordHasher.needsRehash(storedPassword)) {
+                        upgradePassword(uuid, password);
+                    }
+                    return AuthResult.SUCCESS;
+                });
+            })
+            .exceptionally(this::failureResult)
+            .thenApplyAsync(result -> {
+                authStates.endAttempt(uuid, AuthState.LOGGING_IN);
+                return completeLogin(player, result);
+            }, mainThread);
+    }
+
+    private AuthResult completeLogin(Player player, AuthResult result) {
+        if (!player.isOnline()) {
+            return result;
+        }
+
+        switch (result) {
+            case SUCCESS:
+                handleSuccessfulLogin(player);
+                break;
+            case WRONG_PASSWORD:
+                handleFailedLogin(player);
+                break;
+            case NO_PERMISSION:
+                messageUtils.sendConfigMessage(player, "messages.login-fail-permission");
+                break;
+            case NOT_REGISTERED:
+                messageUtils.sendConfigMessage(player, "messages.login-fail-not-registered");
+                break;
+            case COOLDOWN:
+                int remainingSeconds = getRemainingCooldown(player);
+                messageUtils.sendConfigMessage(player, "messages.login-fail-cooldown", "seconds", String.valueOf(remainingSeconds));
+                break;
+            default:
+                sendPipelineMessage(player, result);
+                break;
+        }
+
+        return result;
+    }
+
+    private void sendPipelineMessage(Player player, AuthResult result) {
+        if (result == AuthResult.IN_PROGRESS) {
+            messageUtils.sendConfigMessage(player, "messages.login-in-progress");
+        } else if (result == AuthResult.ALREADY_AUTHENTICATED) {
+            messageUtils.sendConfigMessage(player, "messages.login-fail-already");
+        } else if (result == AuthResult.SERVER_BUSY) {
+            messageUtils.sendConfigMessage(player, "messages.server-busy");
+        } else {
+            messageUtils.sendConfigMessage(player, "messages.internal-error");
+        }
+    }
+
+    private AuthResult failureResult(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RejectedExecutionException) {
+            return AuthResult.SERVER_BUSY;
+        }
+
+        plugin.getLogger().severe("Error during authentication: " + cause.getMessage());
+        return AuthResult.ERROR;
+    }
+
+    private void upgradePassword(UUID uuid, String password) {
+        try {
+            passwordHasher.hashAsync(password).thenAcceptAsync(hash -> storageManager.updatePlayerPassword(uuid, hash), mainThread);
+        } catch (RejectedExecutionException e) {
+            // Keeps the old hash, upgraded on a later login
+        }
     }
 
     private void handleFailedLogin(Player player) {
         UUID uuid = player.getUniqueId();
-        failedAttempts.put(uuid, failedAttempts.getOrDefault(uuid, 0) + 1);
-        lastAttempt.put(uuid, LocalDateTime.now());
+        InetSocketAddress address = player.getAddress();
 
-        int attempts = failedAttempts.get(uuid);
-        int maxAttempts = configManager.getMaxLoginAttempts();
-
-        if (attempts >= maxAttempts) {
+        if (loginThrottle.recordFailure(uuid, address != null ? address.getAddress() : null)) {
             handleBruteForce(player);
             return;
         }
 
-        String message = configManager.getMessage("messages.login-fail-wrong")
-            .replace("{attempts}", String.valueOf(attempts))
-            .replace("{max}", String.valueOf(maxAttempts));
+        int attempts = loginThrottle.getFailedAttempts(uuid);
+        int maxAttempts = configManager.getMaxLoginAttempts();
 
-        messageUtils.sendMessage(player, message);
+        messageUtils.sendConfigMessage(player, "messages.login-fail-wrong",
+            "attempts", String.valueOf(attempts), "max", String.valueOf(maxAttempts));
 
-        if (configManager.getConfig().getBoolean("sounds.enabled")) {
+        if (effectsEnabled()) {
             try {
                 Sound sound = Sound.valueOf(configManager.getConfig().getString("sounds.login-fail"));
                 player.playSound(player.getLocation(), sound, 1.0f, 1.0f);
@@ -147,16 +357,14 @@ public class AuthManager {
     private void handleSuccessfulLogin(Player player) {
         UUID uuid = player.getUniqueId();
 
-        failedAttempts.remove(uuid);
-        lastAttempt.remove(uuid);
-
+        loginThrottle.reset(uuid);
         stopReminderTask(uuid);
 
         storageManager.updatePlayerLogin(uuid, player);
 
-        messageUtils.sendMessage(player, configManager.getMessage("messages.login-success"));
+        messageUtils.sendConfigMessage(player, "messages.login-success");
 
-        if (configManager.getConfig().getBoolean("sounds.enabled")) {
+        if (effectsEnabled()) {
             try {
                 Sound sound = Sound.valueOf(configManager.getConfig().getString("sounds.login-success"));
                 player.playSound(player.getLocation(), sound, 1.0f, 1.0f);
@@ -165,44 +373,36 @@ public class AuthManager {
             }
         }
 
-        animationUtils.showSuccessAnimation(player);
+        if (!plugin.getAdmissionController().isAttackMode()) {
+            animationUtils.showSuccessAnimation(player);
+        }
         restorePlayer(player);
     }
 
     private void handleBruteForce(Player player) {
         UUID uuid = player.getUniqueId();
+        InetSocketAddress address = player.getAddress();
 
-        if (configManager.isIpBans() && player.getAddress() != null) {
-            String playerIP = player.getAddress().getHostString();
-            plugin.getLogger().warning("Brute force detected from IP: " + playerIP);
+        if (address != null && address.getAddress() != null) {
+            plugin.getLogger().warning("Brute force detected from IP: " + address.getAddress().getHostAddress());
+
+            if (configManager.isIpBans()) {
+                plugin.getIpBanManager().ban(address.getAddress(), configManager.getIpBanDuration(), "Brute force");
+            }
         }
 
-        player.kickPlayer(messageUtils.colorize(configManager.getMessage("messages.kick-brute-force")));
+        player.kick(messageUtils.renderMessage("messages.kick-brute-force"));
 
-        failedAttempts.remove(uuid);
-        lastAttempt.remove(uuid);
+        loginThrottle.reset(uuid);
     }
 
     private boolean isOnCooldown(Player player) {
-        UUID uuid = player.getUniqueId();
-        if (!lastAttempt.containsKey(uuid)) {
-            return false;
-        }
-
-        LocalDateTime lastTime = lastAttempt.get(uuid);
-        LocalDateTime now = LocalDateTime.now();
-        long secondsBetween = java.time.Duration.between(lastTime, now).getSeconds();
-
-        return secondsBetween < configManager.getAttemptCooldown();
+        return loginThrottle.getCooldownNanos(player.getUniqueId()) > 0;
     }
 
     private int getRemainingCooldown(Player player) {
-        UUID uuid = player.getUniqueId();
-        LocalDateTime lastTime = lastAttempt.get(uuid);
-        LocalDateTime now = LocalDateTime.now();
-        long secondsBetween = java.time.Duration.between(lastTime, now).getSeconds();
-
-        return (int) (configManager.getAttemptCooldown() - secondsBetween);
+        long waitNanos = loginThrottle.getCooldownNanos(player.getUniqueId());
+        return (int) ((waitNanos + 999_999_999L) / 1_000_000_000L);
     }
 
     private void restorePlayer(Player player) {
@@ -220,52 +420,127 @@ public class AuthManager {
 
         removePlayerRestrictions(player);
         storageManager.removeSavedLocation(uuid);
+        authStates.markAuthenticated(uuid);
+        loginTimeouts.cancel(uuid);
     }
 
     public void startReminderTask(Player player) {
-        UUID uuid = player.getUniqueId();
-        stopReminderTask(uuid);
+        reminderScheduler.start(player);
+    }
 
-        BukkitTask task = new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (!player.isOnline()) {
-                    this.cancel();
-                    reminderTasks.remove(uuid);
-                    return;
-                }
+    public void stopReminderTask(UUID uuid) {
+        reminderScheduler.stop(uuid);
+    }
 
-                if (isAuthenticated(uuid)) {
-                    this.cancel();
-                    reminderTasks.remove(uuid);
-                    return;
-                }
+    public void stopAllTasks() {
+        reminderScheduler.stopAll();
+        loginTimeouts.cancelAll();
+    }
+
+    public LoginTimeoutScheduler getLoginTimeouts() {
+        return loginTimeouts;
+    }
+
+    public boolean isAuthenticated(UUID uuid) {
+        return authStates.isAuthenticated(uuid);
+    }
 
-                messageUtils.sendMessage(player, configManager.getMessage("messages.reminder"));
+    public void forgetPlayer(Player player) {
+        // Speeds are saved with the player file, never leave them at zero
+        restoreSpeeds(player);
+        authStates.remove(player.getUniqueId());
+        loginTimeouts.cancel(player.getUniqueId());
+    }
+
+    public AuthStateRegistry getAuthStateRegistry() {
+        return authStates;
+    }
+
+    public PasswordHasher getPasswordHasher() {
+        return passwordHasher;
+    }
+
+    public void shutdown() {
+        stopAllTasks();
+        cleanupTask.cancel();
+        passwordHasher.shutdown();
+
+        // The original speeds only live in memory; frozen players would keep a speed of 0 otherwise
+        for (UUID uuid : new ArrayList<>(frozenSpeeds.keySet())) {
+            Player player = plugin.getServer().getPlayer(uuid);
+            if (player != null) {
+                restoreSpeeds(player);
             }
-        }.runTaskTimer(plugin, configManager.getReminderInterval() * 20L, configManager.getReminderInterval() * 20L);
+        }
+        frozenSpeeds.clear();
 
-        reminderTasks.put(uuid, task);
+        if (configManager.isSessionsEnabled() && configManager.isSessionPersistence()) {
+            // Players still online at shutdown can resume after a quick restart
+            for (Player player : plugin.getServer().getOnlinePlayers()) {
+                rememberSession(player);
+            }
+
+            try {
+                sessionCache.save(new File(plugin.getDataFolder(), "sessions.yml"));
+            } catch (IOException e) {
+                plugin.getLogger().severe("Error saving sessions: " + e.getMessage());
+            }
+        }
     }
 
-    private boolean isAuthenticated(UUID uuid) {
-        return !storageManager.getSavedLocationMap().containsKey(uuid);
+    public boolean resumeSession(Player player) {
+        if (!configManager.isSessionsEnabled()) {
+            return false;
+        }
+
+        UUID uuid = player.getUniqueId();
+        StorageManager.PlayerData playerData = storageManager.getPlayerData(uuid);
+        if (playerData == null || !sessionCache.resume(uuid, getAddressBytes(player), playerData.getPassword())) {
+            return false;
+        }
+
+        storageManager.updatePlayerLogin(uuid, player);
+        messageUtils.sendConfigMessage(player, "messages.session-resumed");
+        return true;
     }
 
-    public void stopReminderTask(UUID uuid) {
-        BukkitTask task = reminderTasks.remove(uuid);
-        if (task != null && !task.isCancelled()) {
-            task.cancel();
+    public void rememberSession(Player player) {
+        UUID uuid = player.getUniqueId();
+        if (!configManager.isSessionsEnabled() || !authStates.isAuthenticated(uuid)) {
+            return;
+        }
+
+        StorageManager.PlayerData playerData = storageManager.getPlayerData(uuid);
+        if (playerData != null) {
+            sessionCache.put(uuid, getAddressBytes(player), playerData.getPassword(),
+                TimeUnit.SECONDS.toMillis(configManager.getSessionTtl()));
         }
     }
 
-    public void stopAllTasks() {
-        for (BukkitTask task : reminderTasks.values()) {
-            if (!task.isCancelled()) {
-                task.cancel();
-            }
+    public void invalidateSession(UUID uuid) {
+        sessionCache.invalidate(uuid);
+    }
+
+    public void clearSessions() {
+        sessionCache.clear();
+    }
+
+    private boolean effectsEnabled() {
+        // Sounds are skipped during a bot flood, like the titles and animations
+        return configManager.getConfig().getBoolean("sounds.enabled") && !plugin.getAdmissionController().isAttackMode();
+    }
+
+    private static InetAddress getInetAddress(Player player) {
+        InetSocketAddress address = player.getAddress();
+        return address != null ? address.getAddress() : null;
+    }
+
+    private static byte[] getAddressBytes(Player player) {
+        InetSocketAddress address = player.getAddress();
+        if (address == null || address.getAddress() == null) {
+            return null;
         }
-        reminderTasks.clear();
+        return address.getAddress().getAddress();
     }
 
     public void applyPlayerRestrictions(Player player) {
@@ -284,6 +559,15 @@ public class AuthManager {
             player.setCanPickupItems(false);
             player.setCustomNameVisible(false);
             player.setCustomName("");
+
+            if (configManager.isSpeedFreeze()) {
+                frozenSpeeds.putIfAbsent(player.getUniqueId(), new float[]{
+                    player.getWalkSpeed() > 0 ? player.getWalkSpeed() : DEFAULT_WALK_SPEED,
+                    player.getFlySpeed() > 0 ? player.getFlySpeed() : DEFAULT_FLY_SPEED
+                });
+                player.setWalkSpeed(0f);
+                player.setFlySpeed(0f);
+            }
         }
 
         if (configManager.isDarknessEnabled()) {
@@ -304,10 +588,25 @@ public class AuthManager {
         player.setInvulnerable(false);
         player.setCollidable(true);
         player.setCanPickupItems(true);
+        restoreSpeeds(player);
+    }
+
+    private void restoreSpeeds(Player player) {
+        float[] speeds = frozenSpeeds.remove(player.getUniqueId());
+        if (speeds != null) {
+            player.setWalkSpeed(speeds[0]);
+            player.setFlySpeed(speeds[1]);
+        } else if (player.getWalkSpeed() == 0f && configManager.isSpeedFreeze()) {
+            // Frozen before a reload, the original speeds are gone
+            player.setWalkSpeed(DEFAULT_WALK_SPEED);
+            player.setFlySpeed(DEFAULT_FLY_SPEED);
+        }
     }
 
     public void savePlayerLocationAndRestrict(Player player) {
         storageManager.savePlayerLocation(player);
+        authStates.markUnauthenticated(player.getUniqueId());
+        loginTimeouts.arm(player);
         applyPlayerRestrictions(player);
     }
 }
@@ -0,0 +1,22 @@
+package com.turboauth.auth;
+
+public enum AuthResult {
+    SUCCESS,
+    WRONG_PASSWORD,
+    NOT_REGISTERED,
+    ALREADY_REGISTERED,
+    PASSWORD_MISMATCH,
+    PASSWORD_TOO_SHORT,
+    NAME_TAKEN,
+    REGISTRATION_LIMIT,
+    NO_PERMISSION,
+    COOLDOWN,
+    ALREADY_AUTHENTICATED,
+    IN_PROGRESS,
+    SERVER_BUSY,
+    ERROR;
+
+    public boolean isSuccess() {
+        return this == SUCCESS;
+    }
+}
@@ -0,0 +1,93 @@
+package com.turboauth.auth;
+
+import com.turboauth.api.AuthState;
+import com.turboauth.api.AuthStateService;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Online players that still have to log in or register. Authenticated
+ * players are simply absent, so reads are a single lock-free map lookup and
+ * the unauthenticated count is the map size. State changes happen on the
+ * main thread.
+ */
+public class AuthStateRegistry implements AuthStateService {
+
+    private final Map<UUID, AuthState> states;
+    private Runnable onFirstUnauthenticated;
+    private Runnable onAllAuthenticated;
+
+    public AuthStateRegistry() {
+        this.states = new ConcurrentHashMap<>();
+        this.onFirstUnauthenticated = () -> { };
+        this.onAllAuthenticated = () -> { };
+    }
+
+    /**
+     * Callbacks run on the main thread when the first player becomes
+     * unauthenticated and when the last one leaves that state.
+     */
+    public void setTransitionListeners(Runnable onFirstUnauthenticated, Runnable onAllAuthenticated) {
+        this.onFirstUnauthenticated = onFirstUnauthenticated;
+        this.onAllAuthenticated = onAllAuthenticated;
+    }
+
+    @Override
+    public boolean isAuthenticated(UUID uuid) {
+        return !states.containsKey(uuid);
+    }
+
+    @Override
+    public AuthState getState(UUID uuid) {
+        return states.getOrDefault(uuid, AuthState.AUTHENTICATED);
+    }
+
+    @Override
+    public int getUnauthenticatedCount() {
+        return states.size();
+    }
+
+    @Override
+    public Set<UUID> getUnauthenticatedPlayers() {
+        return Collections.unmodifiableSet(states.keySet());
+    }
+
+    public void markUnauthenticated(UUID uuid) {
+        if (states.put(uuid, AuthState.UNAUTHENTICATED) == null && states.size() == 1) {
+            onFirstUnauthenticated.run();
+        }
+    }
+
+    public void markAuthenticated(UUID uuid) {
+        remove(uuid);
+    }
+
+    public void remove(UUID uuid) {
+        if (states.remove(uuid) != null && states.isEmpty()) {
+            onAllAuthenticated.run();
+        }
+    }
+
+    public void clear() {
+        if (!states.isEmpty()) {
+            states.clear();
+            onAllAuthenticated.run();
+        }
+    }
+
+    /**
+     * Moves an unauthenticated player into {@code attempt}. Fails while
+     * another login or registration of the same player is still running.
+     */
+    boolean beginAttempt(UUID uuid, AuthState attempt) {
+        return states.replace(uuid, AuthState.UNAUTHENTICATED, attempt);
+    }
+
+    void endAttempt(UUID uuid, AuthState attempt) {
+        states.replace(uuid, attempt, AuthState.UNAUTHENTICATED);
+    }
+}
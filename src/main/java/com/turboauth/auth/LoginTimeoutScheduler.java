@@ -0,0 +1,141 @@
+package com.turboauth.auth;
+
+import com.turboauth.TurboAuth;
+import com.turboauth.config.ConfigManager;
+import com.turboauth.security.SlidingWindowCounter;
+import com.turboauth.utils.MessageTemplate;
+import com.turboauth.utils.TimingWheel;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Kicks players that have not logged in or registered by their deadline.
+ * Deadlines sit on a timing wheel with one-second ticks, so arming and
+ * cancelling are O(1). With the countdown enabled a player's entry is
+ * re-armed every second to update their action bar; otherwise it fires
+ * once, at the deadline.
+ */
+public class LoginTimeoutScheduler {
+
+    private static final int WHEEL_SIZE = 128;
+
+    private final TurboAuth plugin;
+    private final ConfigManager configManager;
+    private final AuthStateRegistry authStates;
+    private final TimingWheel<Deadline> wheel;
+    private final Map<UUID, TimingWheel.Timeout<Deadline>> deadlines;
+    private final SlidingWindowCounter timeouts;
+
+    private BukkitTask ticker;
+
+    public LoginTimeoutScheduler(TurboAuth plugin, ConfigManager configManager, AuthStateRegistry authStates) {
+        this.plugin = plugin;
+        this.configManager = configManager;
+        this.authStates = authStates;
+        this.wheel = new TimingWheel<>(WHEEL_SIZE, this::expire);
+        this.deadlines = new HashMap<>();
+        this.timeouts = new SlidingWindowCounter(60);
+    }
+
+    public void arm(Player player) {
+        cancel(player.getUniqueId());
+
+        long timeout = configManager.getLoginTimeout();
+        if (timeout <= 0) {
+            return;
+        }
+
+        Deadline deadline = new Deadline(player, wheel.getCurrentTick() + timeout);
+        deadlines.put(player.getUniqueId(), wheel.schedule(deadline, nextDelay(deadline)));
+        showCountdown(deadline);
+
+        if (ticker == null) {
+            ticker = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 20L, 20L);
+        }
+    }
+
+    public void cancel(UUID uuid) {
+        TimingWheel.Timeout<Deadline> timeout = deadlines.remove(uuid);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    public void cancelAll() {
+        wheel.clear();
+        deadlines.clear();
+        if (ticker != null) {
+            ticker.cancel();
+            ticker = null;
+        }
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    public long getTimeoutsPerMinute() {
+        return timeouts.sum();
+    }
+
+    private void tick() {
+        if (deadlines.isEmpty()) {
+            ticker.cancel();
+            ticker = null;
+            return;
+        }
+
+        wheel.advance();
+    }
+
+    private void expire(Deadline deadline) {
+        Player player = deadline.player;
+        UUID uuid = player.getUniqueId();
+        if (!player.isOnline() || authStates.isAuthenticated(uuid)) {
+            deadlines.remove(uuid);
+            return;
+        }
+
+        if (wheel.getCurrentTick() < deadline.kickAt) {
+            showCountdown(deadline);
+            deadlines.put(uuid, wheel.schedule(deadline, nextDelay(deadline)));
+            return;
+        }
+
+        deadlines.remove(uuid);
+        timeouts.increment();
+        player.kick(configManager.getMessageTemplate("messages.kick-login-timeout").render());
+    }
+
+    private long nextDelay(Deadline deadline) {
+        long remaining = deadline.kickAt - wheel.getCurrentTick();
+        return configManager.isLoginTimeoutCountdown() ? 1 : remaining;
+    }
+
+    private void showCountdown(Deadline deadline) {
+        if (!configManager.isLoginTimeoutCountdown()) {
+            return;
+        }
+
+        MessageTemplate template = configManager.getMessageTemplate("messages.login-timeout-countdown");
+        if (!template.isBlank()) {
+            long remaining = deadline.kickAt - wheel.getCurrentTick();
+            deadline.player.sendActionBar(template.render("seconds", String.valueOf(remaining)));
+        }
+    }
+
+    private static final class Deadline {
+
+        private final Player player;
+        private final long kickAt;
+
+        private Deadline(Player player, long kickAt) {
+            this.player = player;
+            this.kickAt = kickAt;
+        }
+    }
+}
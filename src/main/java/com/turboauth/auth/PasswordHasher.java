@@ -0,0 +1,193 @@
+package com.turboauth.auth;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PBKDF2-HMAC-SHA256 password hashes stored as
+ * {@code $pbkdf2-sha256$<iterations>$<salt>$<hash>} (Base64 without padding).
+ * Hashing runs on a small fixed pool with a bounded queue; when the queue is
+ * full the async methods throw {@link java.util.concurrent.RejectedExecutionException}
+ * instead of piling up work. The round count can be calibrated at startup
+ * to a target verify time, in steps of {@value #ITERATION_STEP} rounds so
+ * timing noise does not change it from one restart to the next. Hashes with
+ * a different key length, or clearly fewer rounds than the current count,
+ * report {@link #needsRehash(String)}.
+ */
+public class PasswordHasher {
+
+    private static final String PREFIX = "$pbkdf2-sha256$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final int CALIBRATION_ITERATIONS = 20000;
+    private static final int CALIBRATION_WARMUP_RUNS = 5;
+    private static final int CALIBRATION_RUNS = 5;
+    private static final int MIN_ITERATIONS = 10000;
+    private static final int ITERATION_STEP = 10000;
+    // Stored hashes within this share of the current round count are kept
+    private static final double REHASH_TOLERANCE = 0.2;
+
+    private final ThreadPoolExecutor executor;
+    private final SecureRandom random;
+    private final int threads;
+    private final LongAdder verifications;
+    private final LongAdder verifyNanos;
+
+    private volatile int iterations;
+    private volatile long estimatedHashNanos;
+
+    public PasswordHasher(int threads, int queueSize, int iterations) {
+        this.threads = Math.max(1, threads);
+        this.iterations = Math.max(MIN_ITERATIONS, iterations);
+        this.random = new SecureRandom();
+        this.verifications = new LongAdder();
+        this.verifyNanos = new LongAdder();
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueSize)), runnable -> {
+                Thread thread = new Thread(runnable, "TurboAuth-Hasher");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Times PBKDF2 on this machine and, if {@code targetMillis} is positive,
+     * picks the round count that makes one verification take about that long.
+     */
+    public int calibrate(long targetMillis) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+
+        // Untimed runs so the JIT has compiled the HMAC loop before measuring
+        for (int run = 0; run < CALIBRATION_WARMUP_RUNS; run++) {
+            derive("calibration", salt, CALIBRATION_ITERATIONS, HASH_BITS);
+        }
+
+        long bestNanos = Long.MAX_VALUE;
+        for (int run = 0; run < CALIBRATION_RUNS; run++) {
+            long start = System.nanoTime();
+            derive("calibration", salt, CALIBRATION_ITERATIONS, HASH_BITS);
+            bestNanos = Math.min(bestNanos, Math.max(1, System.nanoTime() - start));
+        }
+
+        if (targetMillis > 0) {
+            long targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+            long calibrated = CALIBRATION_ITERATIONS * targetNanos / bestNanos;
+            long rounded = (calibrated + ITERATION_STEP / 2) / ITERATION_STEP * ITERATION_STEP;
+            iterations = (int) Math.max(MIN_ITERATIONS, Math.min(Integer.MAX_VALUE - ITERATION_STEP, rounded));
+        }
+
+        estimatedHashNanos = bestNanos * iterations / CALIBRATION_ITERATIONS;
+        return iterations;
+    }
+
+    public CompletableFuture<String> hashAsync(String password) {
+        return CompletableFuture.supplyAsync(() -> hash(password), executor);
+    }
+
+    public CompletableFuture<Boolean> verifyAsync(String password, String stored) {
+        return CompletableFuture.supplyAsync(() -> verify(password, stored), executor);
+    }
+
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$" +
+            encoder.encodeToString(derive(password, salt, iterations, HASH_BITS));
+    }
+
+    public boolean verify(String password, String stored) {
+        if (stored == null) {
+            return false;
+        }
+
+        if (!isHashed(stored)) {
+            // Legacy plaintext entry, upgraded by the caller after a successful login
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+
+        String[] parts = stored.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3) {
+            return false;
+        }
+
+        try {
+            int storedIterations = Integer.parseInt(parts[0]);
+            byte[] salt = Base64.getDecoder().decode(parts[1]);
+            byte[] expected = Base64.getDecoder().decode(parts[2]);
+
+            long start = System.nanoTime();
+            boolean matches = MessageDigest.isEqual(expected, derive(password, salt, storedIterations, expected.length * 8));
+            verifyNanos.add(System.nanoTime() - start);
+            verifications.increment();
+            return matches;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public static boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    public boolean needsRehash(String stored) {
+        if (!isHashed(stored)) {
+            return true;
+        }
+
+        String[] parts = stored.substring(PREFIX.length()).split("\\$");
+        try {
+            return parts.length != 3 || Integer.parseInt(parts[0]) < iterations * (1 - REHASH_TOLERANCE) ||
+                Base64.getDecoder().decode(parts[2]).length * 8 != HASH_BITS;
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    public double getVerifiesPerSecond() {
+        // Observed verify time once logins happen, the calibration estimate before that
+        long count = verifications.sum();
+        double hashNanos = count > 0 ? (double) verifyNanos.sum() / count : estimatedHashNanos;
+        return hashNanos > 0 ? threads * 1_000_000_000.0 / hashNanos : 0;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations, int bits) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, bits);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
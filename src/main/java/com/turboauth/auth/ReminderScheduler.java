@@ -0,0 +1,103 @@
+package com.turboauth.auth;
+
+import com.turboauth.TurboAuth;
+import com.turboauth.config.ConfigManager;
+import com.turboauth.utils.TimingWheel;
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sends the login reminder to every unauthenticated player from a single
+ * one-tick timer. Players wait on a timing wheel, so a tick only touches the
+ * players that are due, and players who join together are spread over the
+ * following ticks so their reminders do not all land at once.
+ */
+public class ReminderScheduler {
+
+    private static final int WHEEL_SIZE = 512;
+    private static final int SPREAD_TICKS = 20;
+
+    private final TurboAuth plugin;
+    private final ConfigManager configManager;
+    private final AuthStateRegistry authStates;
+    private final TimingWheel<Player> wheel;
+    private final Map<UUID, TimingWheel.Timeout<Player>> reminders;
+
+    private BukkitTask ticker;
+    private int sequence;
+
+    public ReminderScheduler(TurboAuth plugin, ConfigManager configManager, AuthStateRegistry authStates) {
+        this.plugin = plugin;
+        this.configManager = configManager;
+        this.authStates = authStates;
+        this.wheel = new TimingWheel<>(WHEEL_SIZE, this::remind);
+        this.reminders = new HashMap<>();
+    }
+
+    public void start(Player player) {
+        stop(player.getUniqueId());
+
+        long interval = intervalTicks();
+        sequence = (sequence + 1) % SPREAD_TICKS;
+        reminders.put(player.getUniqueId(), wheel.schedule(player, interval + sequence));
+
+        if (ticker == null) {
+            ticker = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    public void stop(UUID uuid) {
+        TimingWheel.Timeout<Player> timeout = reminders.remove(uuid);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    public void stopAll() {
+        wheel.clear();
+        reminders.clear();
+        if (ticker != null) {
+            ticker.cancel();
+            ticker = null;
+        }
+    }
+
+    public int size() {
+        return reminders.size();
+    }
+
+    private void tick() {
+        if (reminders.isEmpty()) {
+            ticker.cancel();
+            ticker = null;
+            return;
+        }
+
+        wheel.advance();
+    }
+
+    private void remind(Player player) {
+        UUID uuid = player.getUniqueId();
+        if (!player.isOnline() || authStates.isAuthenticated(uuid)) {
+            reminders.remove(uuid);
+            return;
+        }
+
+        // The same component, rendered when the config was loaded, goes to everyone who is due
+        Component message = configManager.getReminderMessage();
+        if (message != null) {
+            player.sendMessage(message);
+        }
+
+        reminders.put(uuid, wheel.schedule(player, intervalTicks()));
+    }
+
+    private long intervalTicks() {
+        return Math.max(1, configManager.getReminderInterval()) * 20L;
+    }
+}
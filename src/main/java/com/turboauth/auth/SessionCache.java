@@ -0,0 +1,116 @@
+package com.turboauth.auth;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Short-lived sessions left behind by authenticated players when they
+ * disconnect. A session can only be resumed once, from the same address and
+ * while the stored password is unchanged; only a checksum of the stored
+ * password is kept.
+ */
+public class SessionCache {
+
+    private final Map<UUID, Session> sessions;
+
+    public SessionCache() {
+        this.sessions = new ConcurrentHashMap<>();
+    }
+
+    public void put(UUID uuid, byte[] address, String password, long ttlMillis) {
+        if (address == null || password == null || ttlMillis <= 0) {
+            return;
+        }
+
+        sessions.put(uuid, new Session(address, passwordStamp(password), System.currentTimeMillis() + ttlMillis));
+    }
+
+    public boolean resume(UUID uuid, byte[] address, String password) {
+        Session session = sessions.remove(uuid);
+        return session != null && address != null && password != null &&
+            session.expiresAt > System.currentTimeMillis() &&
+            Arrays.equals(session.address, address) &&
+            session.passwordStamp == passwordStamp(password);
+    }
+
+    public void invalidate(UUID uuid) {
+        sessions.remove(uuid);
+    }
+
+    public void clear() {
+        sessions.clear();
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public void cleanup() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> session.expiresAt <= now);
+    }
+
+    public void load(File file) {
+        if (!file.exists()) {
+            return;
+        }
+
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        long now = System.currentTimeMillis();
+        for (String key : config.getKeys(false)) {
+            ConfigurationSection section = config.getConfigurationSection(key);
+            if (section == null || section.getLong("expires") <= now) {
+                continue;
+            }
+
+            try {
+                sessions.put(UUID.fromString(key), new Session(Base64.getDecoder().decode(section.getString("address")),
+                    section.getLong("stamp"), section.getLong("expires")));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                // Skip malformed entries
+            }
+        }
+    }
+
+    public void save(File file) throws IOException {
+        cleanup();
+
+        YamlConfiguration config = new YamlConfiguration();
+        for (Map.Entry<UUID, Session> entry : sessions.entrySet()) {
+            String key = entry.getKey().toString();
+            config.set(key + ".address", Base64.getEncoder().encodeToString(entry.getValue().address));
+            config.set(key + ".stamp", entry.getValue().passwordStamp);
+            config.set(key + ".expires", entry.getValue().expiresAt);
+        }
+        config.save(file);
+    }
+
+    private static long passwordStamp(String password) {
+        CRC32 crc = new CRC32();
+        crc.update(password.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static final class Session {
+
+        private final byte[] address;
+        private final long passwordStamp;
+        private final long expiresAt;
+
+        private Session(byte[] address, long passwordStamp, long expiresAt) {
+            this.address = address;
+            this.passwordStamp = passwordStamp;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
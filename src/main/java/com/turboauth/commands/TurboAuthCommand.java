@@ -2,10 +2,16 @@ package com.turboauth.commands;
 
 import com.turboauth.TurboAuth;
 import com.turboauth.auth.AuthManager;
+import com.turboauth.auth.LoginTimeoutScheduler;
+import com.turboauth.auth.PasswordHasher;
 import com.turboauth.config.ConfigManager;
+import com.turboauth.security.AdmissionController;
+import com.turboauth.security.IpBanManager;
+import com.turboauth.storage.AccountCache;
 import com.turboauth.storage.StorageManager;
 import com.turboauth.utils.MessageUtils;
 import com.turboauth.utils.PermissionUtils;
+import net.kyori.adventure.text.Component;
 import org.bukkit.Location;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -13,11 +19,16 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 
 public class TurboAuthCommand implements CommandExecutor, TabCompleter {
 
+    private static final int BANS_PER_PAGE = 10;
+
     private final TurboAuth plugin;
     private final AuthManager authManager;
     private final ConfigManager configManager;
@@ -56,17 +67,12 @@ public class TurboAuthCommand implements CommandExecutor, TabCompleter {
         Player player = (Player) sender;
 
         if (args.length != 1) {
-            messageUtils.sendMessage(player, "&c&l✗ &7Usage: &e/login <password>");
+            messageUtils.sendConfigMessage(player, "messages.usage-login");
             return true;
         }
 
         String password = args[0];
 
-        if (!storageManager.playerExists(player.getUniqueId())) {
-            messageUtils.sendMessage(player, "&c&l✗ &7You are not registered! &7Use &e/register <password> <password>");
-            return true;
-        }
-
         authManager.loginPlayer(player, password);
         return true;
     }
@@ -80,14 +86,15 @@ public class TurboAuthCommand implements CommandExecutor, TabCompleter {
         Player player = (Player) sender;
 
         if (args.length != 2) {
-            messageUtils.sendMessage(player, "&c&l✗ &7Usage: &e/register <password> <password>");
+            messageUtils.sendConfigMessage(player, "messages.usage-register");
             return true;
         }
 
         String password = args[0];
         String confirmPassword = args[1];
 
-        return authManager.registerPlayer(player, password, confirmPassword);
+        authManager.registerPlayer(player, password, confirmPassword);
+        return true;
     }
 
     private boolean handleTurboAuthCommand(CommandSender sender, String[] args) {
@@ -113,6 +120,16 @@ public class TurboAuthCommand implements CommandExecutor, TabCompleter {
                 return handleSetFallbackCommand(sender);
             case "info":
                 return handleInfoCommand(sender);
+            case "migrate":
+                return handleMigrateCommand(sender, args);
+            case "ban":
+                return handleBanCommand(sender, args);
+            case "unban":
+                return handleUnbanCommand(sender, args);
+            case "bans":
+                return handleBansCommand(sender, args);
+            case "clearsessions":
+                return handleClearSessionsCommand(sender, args);
             case "help":
             default:
                 sendHelpMessage(sender);
@@ -129,7 +146,7 @@ public class TurboAuthCommand implements CommandExecutor, TabCompleter {
             plugin.getLogger().info("TurboAuth configuration and data reloaded by " +
                 (sender instanceof Player ? ((Player) sender).getName() : "Console"));
         } catch (Exception e) {
-            messageUtils.sendMessage(sender, "&c&l✗ &7Error reloading: &e" + e.getMessage());
+            messageUtils.sendMessage(sender, "&c&l✗ &7Error reloading: &e{error}", "error", String.valueOf(e.getMessage()));
             plugin.getLogger().severe("Error reloading TurboAuth: " + e.getMessage());
         }
 
@@ -147,7 +164,7 @@ public class TurboAuthCommand implements CommandExecutor, TabCompleter {
 
         configManager.setAuthSpawn(location);
 
-        messageUtils.sendMessage(player, "&a&l✓ &7Auth spawn set to your current location!");
+        messageUtils.sendMessage(sender, "&a&l✓ &7Auth spawn set to your current location!");
         plugin.getLogger().info("Auth spawn set to " + location.getWorld().getName() +
             " (" + location.getX() + ", " + location.getY() + ", " + location.getZ() + ") by " +
             player.getName());
@@ -166,7 +183,7 @@ public class TurboAuthCommand implements CommandExecutor, TabCompleter {
 
         configManager.setFallbackSpawn(location);
 
-        messageUtils.sendMessage(player, "&a&l✓ &7Fallback spawn set to your current location!");
+        messageUtils.sendMessage(sender, "&a&l✓ &7Fallback spawn set to your current location!");
         plugin.getLogger().info("Fallback spawn set to " + location.getWorld().getName() +
             " (" + location.getX() + ", " + location.getY() + ", " + location.getZ() + ") by " +
             player.getName());
@@ -174,10 +191,222 @@ public class TurboAuthCommand implements CommandExecutor, TabCompleter {
         return true;
     }
 
+    private boolean handleMigrateCommand(CommandSender sender, String[] args) {
+        if (args.length != 3) {
+            messageUtils.sendMessage(sender, "&c&l✗ &7Usage: &e/turboauth migrate <" +
+                String.join("|", StorageManager.STORAGE_TYPES) + "> <" + String.join("|", StorageManager.STORAGE_TYPES) + ">");
+            return true;
+        }
+
+        String from = args[1].toLowerCase(Locale.ROOT);
+        String to = args[2].toLowerCase(Locale.ROOT);
+
+        if (!StorageManager.STORAGE_TYPES.contains(from) || !StorageManager.STORAGE_TYPES.contains(to)) {
+            messageUtils.sendMessage(sender, "&c&l✗ &7Unknown storage type! Use one of: &e" +
+                String.join(", ", StorageManager.STORAGE_TYPES));
+            return true;
+        }
+
+        if (from.equals(to)) {
+            messageUtils.sendMessage(sender, "&c&l✗ &7Source and target storage must be different!");
+            return true;
+        }
+
+        // Copied records would overwrite newer ones the server has written since
+        if (to.equals(storageManager.getStorageType())) {
+            messageUtils.sendMessage(sender, "&c&l✗ &7Cannot migrate into &e{type}&7, the storage the server is using!",
+                "type", to);
+            return true;
+        }
+
+        boolean started = storageManager.startMigration(from, to, message ->
+            plugin.getServer().getScheduler().runTask(plugin, () -> sender.sendMessage(message)));
+
+        if (!started) {
+            messageUtils.sendMessage(sender, "&c&l✗ &7A migration is already running!");
+            return true;
+        }
+
+        plugin.getLogger().info("Account migration from " + from + " to " + to + " started by " +
+            (sender instanceof Player ? ((Player) sender).getName() : "Console"));
+        return true;
+    }
+
+    private boolean handleBanCommand(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            messageUtils.sendMessage(sender, "&c&l✗ &7Usage: &e/turboauth ban <ip|cidr> [duration] [reason]");
+            return true;
+        }
+
+        long duration = configManager.getIpBanDuration();
+        if (args.length >= 3) {
+            duration = parseDuration(args[2]);
+            if (duration < 0) {
+                messageUtils.sendMessage(sender, "&c&l✗ &7Invalid duration &e{duration}&7! Use e.g. &e30m&7, &e12h&7, &e7d &7or &epermanent",
+                    "duration", args[2]);
+                return true;
+            }
+        }
+
+        String reason = args.length >= 4 ? String.join(" ", Arrays.copyOfRange(args, 3, args.length)) : null;
+
+        IpBanManager ipBanManager = plugin.getIpBanManager();
+        IpBanManager.Ban ban;
+        try {
+            ban = ipBanManager.ban(args[1], duration, reason);
+        } catch (IllegalArgumentException e) {
+            messageUtils.sendMessage(sender, "&c&l✗ &7{error}", "error", e.getMessage());
+            return true;
+        }
+
+        Component kickMessage = messageUtils.renderMessage("messages.kick-ip-banned",
+            "time", ban.isPermanent() ? "never" : IpBanManager.formatDuration(ban.getRemainingSeconds()));
+        for (Player online : plugin.getServer().getOnlinePlayers()) {
+            InetSocketAddress address = online.getAddress();
+            if (address != null && address.getAddress() != null && ipBanManager.getBan(address.getAddress()) != null) {
+                online.kick(kickMessage);
+            }
+        }
+
+        messageUtils.sendMessage(sender, "&a&l✓ &7Banned &e{network} &7" +
+            (ban.isPermanent() ? "permanently" : "for &e" + IpBanManager.formatDuration(duration)), "network", ban.getNetwork());
+        plugin.getLogger().info("IP ban on " + ban.getNetwork() + " added by " +
+            (sender instanceof Player ? ((Player) sender).getName() : "Console"));
+        return true;
+    }
+
+    private boolean handleUnbanCommand(CommandSender sender, String[] args) {
+        if (args.length != 2) {
+            messageUtils.sendMessage(sender, "&c&l✗ &7Usage: &e/turboauth unban <ip|cidr>");
+            return true;
+        }
+
+        try {
+            if (!plugin.getIpBanManager().unban(args[1])) {
+                messageUtils.sendMessage(sender, "&c&l✗ &7No ban found for &e{network}&7!", "network", args[1]);
+                return true;
+            }
+        } catch (IllegalArgumentException e) {
+            messageUtils.sendMessage(sender, "&c&l✗ &7{error}", "error", e.getMessage());
+            return true;
+        }
+
+        messageUtils.sendMessage(sender, "&a&l✓ &7Removed the ban on &e{network}&7!", "network", args[1]);
+        plugin.getLogger().info("IP ban on " + args[1] + " removed by " +
+            (sender instanceof Player ? ((Player) sender).getName() : "Console"));
+        return true;
+    }
+
+    private boolean handleBansCommand(CommandSender sender, String[] args) {
+        List<IpBanManager.Ban> bans = plugin.getIpBanManager().getBans();
+        int pages = Math.max(1, (bans.size() + BANS_PER_PAGE - 1) / BANS_PER_PAGE);
+
+        int page = 1;
+        if (args.length >= 2) {
+            try {
+                page = Math.max(1, Math.min(pages, Integer.parseInt(args[1])));
+            } catch (NumberFormatException e) {
+                messageUtils.sendMessage(sender, "&c&l✗ &7Usage: &e/turboauth bans [page]");
+                return true;
+            }
+        }
+
+        messageUtils.sendMessage(sender, "&e&l=== &6IP Bans &7(&e" + bans.size() + "&7) &8- &7page &e" + page + "&7/&e" + pages + " &e&l===");
+        for (int i = (page - 1) * BANS_PER_PAGE; i < Math.min(bans.size(), page * BANS_PER_PAGE); i++) {
+            IpBanManager.Ban ban = bans.get(i);
+            messageUtils.sendMessage(sender, "&e{network} &8- &7" +
+                (ban.isPermanent() ? "permanent" : "expires in &e" + IpBanManager.formatDuration(ban.getRemainingSeconds())) +
+                (ban.getReason() != null ? " &8(&7{reason}&8)" : ""), "network", ban.getNetwork(), "reason", ban.getReason());
+        }
+        return true;
+    }
+
+    private boolean handleClearSessionsCommand(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            authManager.clearSessions();
+            messageUtils.sendMessage(sender, "&a&l✓ &7All sessions cleared!");
+            return true;
+        }
+
+        StorageManager.PlayerData playerData = storageManager.getPlayerData(args[1]);
+        if (playerData == null) {
+            messageUtils.sendMessage(sender, "&c&l✗ &7Player &e{player} &7is not registered!", "player", args[1]);
+            return true;
+        }
+
+        authManager.invalidateSession(playerData.getUuid());
+        messageUtils.sendMessage(sender, "&a&l✓ &7Session of &e{player} &7cleared!", "player", playerData.getUsername());
+        return true;
+    }
+
+    private static long parseDuration(String input) {
+        String value = input.toLowerCase(Locale.ROOT);
+        if (value.equals("permanent") || value.equals("perm")) {
+            return 0;
+        }
+
+        long multiplier = 1;
+        char unit = value.isEmpty() ? ' ' : value.charAt(value.length() - 1);
+        switch (unit) {
+            case 's':
+                break;
+            case 'm':
+                multiplier = 60;
+                break;
+            case 'h':
+                multiplier = 3600;
+                break;
+            case 'd':
+                multiplier = 86400;
+                break;
+            case 'w':
+                multiplier = 604800;
+                break;
+            default:
+                unit = ' ';
+                break;
+        }
+
+        try {
+            long amount = Long.parseLong(unit == ' ' ? value : value.substring(0, value.length() - 1));
+            return amount >= 0 ? amount * multiplier : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     private boolean handleInfoCommand(CommandSender sender) {
         messageUtils.sendMessage(sender, "&e&l=== &6TurboAuth &e&l===");
         messageUtils.sendMessage(sender, "&7Version: &e" + plugin.getDescription().getVersion());
         messageUtils.sendMessage(sender, "&7Registered Players: &e" + storageManager.playerDataSize());
+
+        AccountCache cache = storageManager.getAccountCache();
+        messageUtils.sendMessage(sender, "&7Account Cache: &e" + cache.size() + "&7/&e" + cache.getMaxSize() +
+            " &7(hits &e" + cache.getHits() + "&7, misses &e" + cache.getMisses() +
+            "&7, evictions &e" + cache.getEvictions() + "&7)");
+
+        PasswordHasher hasher = authManager.getPasswordHasher();
+        messageUtils.sendMessage(sender, "&7Password Hashing: &e" + hasher.getIterations() + " &7rounds, &e~" +
+            Math.round(hasher.getVerifiesPerSecond()) + " &7logins/s on &e" + hasher.getThreads() +
+            " &7threads (&e" + hasher.getQueuedTasks() + " &7queued)");
+        messageUtils.sendMessage(sender, "&7IP Bans: &e" + plugin.getIpBanManager().size());
+        int unauthenticated = authManager.getAuthStateRegistry().getUnauthenticatedCount();
+        messageUtils.sendMessage(sender, "&7Unauthenticated Players: &e" + unauthenticated + " &7(restrictions " +
+            (plugin.getRestrictionListener().isRegistered() ? "&aactive" : "&7idle") + "&7)");
+
+        LoginTimeoutScheduler loginTimeouts = authManager.getLoginTimeouts();
+        messageUtils.sendMessage(sender, "&7Login Timeouts: &e" + loginTimeouts.size() + " &7pending, &e" +
+            loginTimeouts.getTimeoutsPerMinute() + " &7kicked in the last minute");
+
+        double[] freeze = plugin.getRestrictionListener().getFreezeMetrics(unauthenticated);
+        messageUtils.sendMessage(sender, String.format(Locale.ROOT,
+            "&7Freeze: &e%.1f &7moves/s and &e%.2f &7corrections/s per frozen player, &e%.1f&7µs per move",
+            freeze[0], freeze[1], freeze[2]));
+
+        AdmissionController admission = plugin.getAdmissionController();
+        messageUtils.sendMessage(sender, "&7Attack Mode: " + (admission.isAttackMode() ? "&cactive" : "&aoff") +
+            " &7(&e" + admission.getRecentJoins() + " &7joins, &e" + admission.getRecentRegistrations() +
+            " &7registrations in &e" + admission.getWindowSeconds() + "s&7)");
         messageUtils.sendMessage(sender, "&7Plugin Author: &eTurboAuth Team");
         messageUtils.sendMessage(sender, "&e&l==================");
         return true;
@@ -191,6 +420,11 @@ public class TurboAuthCommand implements CommandExecutor, TabCompleter {
         messageUtils.sendMessage(sender, "&7/turboauth setspawn &8- &7Set authentication spawn location");
         messageUtils.sendMessage(sender, "&7/turboauth setfallback &8- &7Set post-login fallback spawn");
         messageUtils.sendMessage(sender, "&7/turboauth info &8- &7Show plugin information");
+        messageUtils.sendMessage(sender, "&7/turboauth migrate <from> <to> &8- &7Copy accounts to another storage engine");
+        messageUtils.sendMessage(sender, "&7/turboauth ban <ip|cidr> [duration] [reason] &8- &7Ban an IP address or range");
+        messageUtils.sendMessage(sender, "&7/turboauth unban <ip|cidr> &8- &7Remove an IP ban");
+        messageUtils.sendMessage(sender, "&7/turboauth bans [page] &8- &7List IP bans");
+        messageUtils.sendMessage(sender, "&7/turboauth clearsessions [player] &8- &7Force players to log in again");
         messageUtils.sendMessage(sender, "&7/turboauth help &8- &7Show this help message");
         messageUtils.sendMessage(sender, "&e&l==================");
     }
@@ -199,14 +433,37 @@ public class TurboAuthCommand implements CommandExecutor, TabCompleter {
     public List<String> onTabComplete(CommandSender sender, Command cmd, String alias, String[] args) {
         List<String> completions = new ArrayList<>();
 
-        if (cmd.getName().equalsIgnoreCase("turboauth") && args.length == 1) {
-            Player player = sender instanceof Player ? (Player) sender : null;
-            if (PermissionUtils.hasPermission(player, "turboauth.admin")) {
-                completions.add("reload");
-                completions.add("setspawn");
-                completions.add("setfallback");
-                completions.add("info");
-                completions.add("help");
+        if (!cmd.getName().equalsIgnoreCase("turboauth")) {
+            return completions;
+        }
+
+        Player player = sender instanceof Player ? (Player) sender : null;
+        if (!PermissionUtils.hasPermission(player, "turboauth.admin")) {
+            return completions;
+        }
+
+        if (args.length == 1) {
+            completions.add("reload");
+            completions.add("setspawn");
+            completions.add("setfallback");
+            completions.add("info");
+            completions.add("migrate");
+            completions.add("ban");
+            completions.add("unban");
+            completions.add("bans");
+            completions.add("clearsessions");
+            completions.add("help");
+        } else if ((args.length == 2 || args.length == 3) && args[0].equalsIgnoreCase("migrate")) {
+            completions.addAll(StorageManager.STORAGE_TYPES);
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("clearsessions")) {
+            for (Player online : plugin.getServer().getOnlinePlayers()) {
+                completions.add(online.getName());
+            }
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("unban")) {
+            for (IpBanManager.Ban ban : plugin.getIpBanManager().getBans()) {
+                if (ban.getNetwork().startsWith(args[1]) && completions.size() < BANS_PER_PAGE * 5) {
+                    completions.add(ban.getNetwork());
+                }
             }
         }
 
@@ -1,19 +1,31 @@
 package com.turboauth.config;
 
 import com.turboauth.TurboAuth;
+import com.turboauth.utils.MessageTemplate;
+import com.turboauth.utils.MessageUtils;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.title.Title;
 import org.bukkit.Location;
 import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ConfigManager {
 
     private final TurboAuth plugin;
     private FileConfiguration config;
     private File configFile;
+    private volatile Map<String, MessageTemplate> messageTemplates = Map.of();
+    private volatile Map<String, Title> titles = Map.of();
+    private volatile Component[] gradientFrames = new Component[0];
+    private volatile Component reminderMessage;
 
     // Config keys
     public static final String AUTH_SPAWN = "auth-spawn.world";
@@ -47,6 +59,7 @@ public class ConfigManager {
 
         // Set default values if not present
         setDefaults();
+        compileMessages();
     }
 
     public void loadConfig() {
@@ -63,17 +76,71 @@ public class ConfigManager {
         config.addDefault("messages.login-fail-wrong", "&c&l✗ &7Wrong password! &7(&e{attempts}&7/&e{max}&7)");
         config.addDefault("messages.login-fail-not-registered", "&c&l✗ &7You are not registered! &7Use &e/register <password> <password>");
         config.addDefault("messages.kick-brute-force", "&c&l⚡ Protected by TurboAuth\n&7Reason: &eToo many failed login attempts");
+        config.addDefault("messages.kick-ip-banned", "&c&l⚡ Protected by TurboAuth\n&7Reason: &eYour IP address is banned\n&7Expires in: &e{time}");
+        config.addDefault("messages.session-resumed", "&a&l✓ &7Welcome back! &eYour session was resumed.");
         config.addDefault("messages.reminder", "&7&l⟶ &ePlease authenticate with &e/login <password>");
+        config.addDefault("messages.login-timeout-countdown", "&7Time left to log in: &e{seconds}s");
+        config.addDefault("messages.kick-login-timeout", "&c&l⚡ Protected by TurboAuth\n&7Reason: &eYou took too long to log in");
+        config.addDefault("messages.server-busy", "&c&l✗ &7The server is busy, please try again in a moment!");
+        config.addDefault("messages.internal-error", "&c&l✗ &7Something went wrong, please contact an administrator!");
+        config.addDefault("messages.kick-attack-mode", "&c&l⚡ Protected by TurboAuth\n&7Reason: &eThe server is under attack\n&7New players cannot join right now, please try again later");
+        config.addDefault("messages.register-fail-limit", "&c&l✗ &7Too many accounts were registered from your address, please try again later!");
+        config.addDefault("messages.register-fail-permission", "&c&l✗ &7You don't have permission to register!");
+        config.addDefault("messages.register-fail-too-short", "&c&l✗ &7Password must be at least 3 characters long!");
+        config.addDefault("messages.register-fail-name-taken", "&c&l✗ &7The name &e{name} &7is already registered to another account!");
+        config.addDefault("messages.login-fail-permission", "&c&l✗ &7You don't have permission to login!");
+        config.addDefault("messages.login-fail-cooldown", "&c&l✗ &7Please wait &e{seconds} &7seconds before trying again!");
+        config.addDefault("messages.login-fail-already", "&c&l✗ &7You are already logged in!");
+        config.addDefault("messages.login-in-progress", "&c&l✗ &7Please wait, your last attempt is still being checked!");
+        config.addDefault("messages.must-authenticate", "&c&l✗ &7You must authenticate first!");
+        config.addDefault("messages.usage-login", "&c&l✗ &7Usage: &e/login <password>");
+        config.addDefault("messages.usage-register", "&c&l✗ &7Usage: &e/register <password> <password>");
 
         config.addDefault("settings.max-login-attempts", 5);
         config.addDefault("settings.attempt-cooldown", 10);
         config.addDefault("settings.reminder-interval", 30);
+        config.addDefault("settings.login-timeout", 0L);
+        config.addDefault("settings.login-timeout-countdown", true);
         config.addDefault("settings.auto-login", false);
         config.addDefault("settings.enable-darkness", true);
         config.addDefault("settings.enable-freeze", true);
+        config.addDefault("settings.freeze-mode", "speed");
         config.addDefault("settings.ip-bans", false);
         config.addDefault("settings.ip-ban-duration", 3600L);
 
+        // Security
+        config.addDefault("security.hash-iterations", 310000);
+        config.addDefault("security.hash-target-ms", 0L);
+        config.addDefault("security.hash-threads", 2);
+        config.addDefault("security.hash-queue-size", 64);
+        config.addDefault("security.rate-limit.ip-max-failures", 10);
+        config.addDefault("security.rate-limit.ip-failure-refill", 60L);
+        config.addDefault("security.rate-limit.global-burst", 50);
+        config.addDefault("security.rate-limit.global-per-second", 20);
+        config.addDefault("security.rate-limit.max-entries", 10000);
+        config.addDefault("security.attack-mode.enabled", true);
+        config.addDefault("security.attack-mode.window", 10);
+        config.addDefault("security.attack-mode.join-threshold", 30);
+        config.addDefault("security.attack-mode.register-threshold", 10);
+        config.addDefault("security.attack-mode.exit-ratio", 0.5);
+        config.addDefault("security.attack-mode.exit-delay", 60L);
+        config.addDefault("security.attack-mode.registrations-per-ip", 2);
+
+        // Sessions
+        config.addDefault("sessions.enabled", false);
+        config.addDefault("sessions.ttl", 60L);
+        config.addDefault("sessions.persist", false);
+
+        // Storage
+        config.addDefault("storage.type", "log");
+        config.addDefault("storage.compaction-ratio", 0.5);
+        config.addDefault("storage.sqlite.pool-size", 4);
+        config.addDefault("storage.lazy-loading", false);
+        config.addDefault("storage.cache.max-size", 10000);
+        config.addDefault("storage.write-behind.max-delay", 2000L);
+        config.addDefault("storage.write-behind.max-pending", 256);
+        config.addDefault("storage.migration.threads", 4);
+
         // Animations
         config.addDefault("animations.join.title", "&e&lWelcome");
         config.addDefault("animations.join.subtitle", "&7Please authenticate");
@@ -85,6 +152,19 @@ public class ConfigManager {
         config.addDefault("animations.success.fade-in", 5);
         config.addDefault("animations.success.stay", 40);
         config.addDefault("animations.success.fade-out", 5);
+        config.addDefault("animations.gradient.enabled", false);
+        config.addDefault("animations.gradient.interval", 5);
+        config.addDefault("animations.gradient.repeat", 5);
+        config.addDefault("animations.gradient.frames", List.of(
+            "<red>&l⟶ &7&lPlease authenticate with &e&l/register <password> <password>",
+            "<#ffa500>&l⟶ &7&lPlease authenticate with &e&l/register <password> <password>",
+            "<yellow>&l⟶ &7&lPlease authenticate with &e&l/register <password> <password>",
+            "<green>&l⟶ &7&lPlease authenticate with &e&l/register <password> <password>",
+            "<blue>&l⟶ &7&lPlease authenticate with &e&l/register <password> <password>",
+            "<dark_purple>&l⟶ &7&lPlease authenticate with &e&l/register <password> <password>",
+            "<light_purple>&l⟶ &7&lPlease authenticate with &e&l/register <password> <password>",
+            "<aqua>&l⟶ &7&lPlease authenticate with &e&l/register <password> <password>"
+        ));
 
         // Sounds
         config.addDefault("sounds.join", "BLOCK_ANVIL_LAND");
@@ -182,6 +262,80 @@ public class ConfigManager {
         return config.getString(path);
     }
 
+    public MessageTemplate getMessageTemplate(String path) {
+        MessageTemplate template = messageTemplates.get(path);
+        return template != null ? template : MessageTemplate.compile(config.getString(path));
+    }
+
+    private void compileMessages() {
+        Map<String, MessageTemplate> templates = new HashMap<>();
+        for (String section : new String[]{"messages", "animations"}) {
+            ConfigurationSection messages = config.getConfigurationSection(section);
+            if (messages == null) {
+                continue;
+            }
+
+            for (String key : messages.getKeys(true)) {
+                if (messages.isString(key)) {
+                    templates.put(section + "." + key, MessageTemplate.compile(messages.getString(key)));
+                }
+            }
+        }
+        messageTemplates = templates;
+
+        Map<String, Title> compiledTitles = new HashMap<>();
+        ConfigurationSection animations = config.getConfigurationSection("animations");
+        if (animations != null) {
+            for (String key : animations.getKeys(false)) {
+                String path = "animations." + key;
+                MessageTemplate title = getMessageTemplate(path + ".title");
+                if (!title.isBlank()) {
+                    compiledTitles.put(path, Title.title(title.render(), getMessageTemplate(path + ".subtitle").render(),
+                        MessageUtils.times(config.getInt(path + ".fade-in"), config.getInt(path + ".stay"),
+                            config.getInt(path + ".fade-out"))));
+                }
+            }
+        }
+        titles = compiledTitles;
+
+        List<Component> frames = new ArrayList<>();
+        for (String frame : config.getStringList("animations.gradient.frames")) {
+            frames.add(MessageTemplate.compile(frame).render());
+        }
+        gradientFrames = frames.toArray(new Component[0]);
+
+        MessageTemplate reminder = getMessageTemplate("messages.reminder");
+        reminderMessage = reminder.isBlank() ? null : reminder.render();
+    }
+
+    public Title getTitle(String path) {
+        return titles.get(path);
+    }
+
+    public Component[] getGradientFrames() {
+        return gradientFrames;
+    }
+
+    /**
+     * The reminder as rendered at the last load or reload, null when it is
+     * turned off by leaving it blank.
+     */
+    public Component getReminderMessage() {
+        return reminderMessage;
+    }
+
+    public boolean isGradientAnimationEnabled() {
+        return config.getBoolean("animations.gradient.enabled");
+    }
+
+    public int getGradientInterval() {
+        return config.getInt("animations.gradient.interval");
+    }
+
+    public int getGradientRepeat() {
+        return config.getInt("animations.gradient.repeat");
+    }
+
     public List<String> getMessages(String path) {
         return config.getStringList(path);
     }
@@ -202,6 +356,14 @@ public class ConfigManager {
         return config.getBoolean("settings.auto-login");
     }
 
+    public long getLoginTimeout() {
+        return config.getLong("settings.login-timeout");
+    }
+
+    public boolean isLoginTimeoutCountdown() {
+        return config.getBoolean("settings.login-timeout-countdown");
+    }
+
     public boolean isDarknessEnabled() {
         return config.getBoolean("settings.enable-darkness");
     }
@@ -210,6 +372,10 @@ public class ConfigManager {
         return config.getBoolean("settings.enable-freeze");
     }
 
+    public boolean isSpeedFreeze() {
+        return !"position".equalsIgnoreCase(config.getString("settings.freeze-mode"));
+    }
+
     public boolean isIpBans() {
         return config.getBoolean("settings.ip-bans");
     }
@@ -217,4 +383,112 @@ public class ConfigManager {
     public long getIpBanDuration() {
         return config.getLong("settings.ip-ban-duration");
     }
+
+    public int getHashIterations() {
+        return config.getInt("security.hash-iterations");
+    }
+
+    public long getHashTargetMillis() {
+        return config.getLong("security.hash-target-ms");
+    }
+
+    public int getHashThreads() {
+        return config.getInt("security.hash-threads");
+    }
+
+    public int getHashQueueSize() {
+        return config.getInt("security.hash-queue-size");
+    }
+
+    public int getIpMaxFailures() {
+        return config.getInt("security.rate-limit.ip-max-failures");
+    }
+
+    public long getIpFailureRefill() {
+        return config.getLong("security.rate-limit.ip-failure-refill");
+    }
+
+    public int getGlobalLoginBurst() {
+        return config.getInt("security.rate-limit.global-burst");
+    }
+
+    public int getGlobalLoginsPerSecond() {
+        return config.getInt("security.rate-limit.global-per-second");
+    }
+
+    public int getRateLimitMaxEntries() {
+        return config.getInt("security.rate-limit.max-entries");
+    }
+
+    public boolean isAttackModeEnabled() {
+        return config.getBoolean("security.attack-mode.enabled");
+    }
+
+    public int getAttackWindow() {
+        return config.getInt("security.attack-mode.window");
+    }
+
+    public int getAttackJoinThreshold() {
+        return config.getInt("security.attack-mode.join-threshold");
+    }
+
+    public int getAttackRegisterThreshold() {
+        return config.getInt("security.attack-mode.register-threshold");
+    }
+
+    public double getAttackExitRatio() {
+        return config.getDouble("security.attack-mode.exit-ratio");
+    }
+
+    public long getAttackExitDelay() {
+        return config.getLong("security.attack-mode.exit-delay");
+    }
+
+    public int getAttackRegistrationsPerIp() {
+        return config.getInt("security.attack-mode.registrations-per-ip");
+    }
+
+    public boolean isSessionsEnabled() {
+        return config.getBoolean("sessions.enabled");
+    }
+
+    public long getSessionTtl() {
+        return config.getLong("sessions.ttl");
+    }
+
+    public boolean isSessionPersistence() {
+        return config.getBoolean("sessions.persist");
+    }
+
+    public String getStorageType() {
+        return config.getString("storage.type");
+    }
+
+    public double getCompactionRatio() {
+        return config.getDouble("storage.compaction-ratio");
+    }
+
+    public int getSqlitePoolSize() {
+        return config.getInt("storage.sqlite.pool-size");
+    }
+
+    public boolean isLazyLoading() {
+        return config.getBoolean("storage.lazy-loading");
+    }
+
+    public int getCacheMaxSize() {
+        return config.getInt("storage.cache.max-size");
+    }
+
+    public long getWriteBehindMaxDelay() {
+        return config.getLong("storage.write-behind.max-delay");
+    }
+
+    public int getWriteBehindMaxPending() {
+        return config.getInt("storage.write-behind.max-pending");
+    }
+
+    public int getMigrationThreads() {
+        return config.getInt("storage.migration.threads");
+    }
 }
@@ -0,0 +1,225 @@
+package com.turboauth.events;
+
+import com.turboauth.api.AuthStateService;
+import com.turboauth.config.ConfigManager;
+import com.turboauth.security.SlidingWindowCounter;
+import com.turboauth.utils.MessageUtils;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerInteractEntityEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Handlers that keep unauthenticated players in place. Only registered
+ * while at least one unauthenticated player is online, so a server where
+ * everyone is logged in does not pay for them on every move or interaction.
+ * RestrictionListenerBenchmark in src/jmh measures the per-event cost.
+ */
+public class RestrictionListener implements Listener {
+
+    private static final int METRICS_WINDOW = 10;
+
+    private final Plugin plugin;
+    private final AuthStateService authStates;
+    private final ConfigManager configManager;
+    private final MessageUtils messageUtils;
+    private final SlidingWindowCounter frozenMoves;
+    private final SlidingWindowCounter corrections;
+    private final SlidingWindowCounter moveHandlerNanos;
+    private boolean registered;
+
+    public RestrictionListener(Plugin plugin, AuthStateService authStates, ConfigManager configManager) {
+        this.plugin = plugin;
+        this.authStates = authStates;
+        this.configManager = configManager;
+        this.messageUtils = new MessageUtils(configManager);
+        this.frozenMoves = new SlidingWindowCounter(METRICS_WINDOW);
+        this.corrections = new SlidingWindowCounter(METRICS_WINDOW);
+        this.moveHandlerNanos = new SlidingWindowCounter(METRICS_WINDOW);
+    }
+
+    public void register() {
+        if (!registered) {
+            plugin.getServer().getPluginManager().registerEvents(this, plugin);
+            registered = true;
+        }
+    }
+
+    public void unregister() {
+        if (registered) {
+            HandlerList.unregisterAll(this);
+            registered = false;
+        }
+    }
+
+    public boolean isRegistered() {
+        return registered;
+    }
+
+    /**
+     * Move packets and position corrections per frozen player per second,
+     * and the average move handler time in microseconds, over the last
+     * {@value #METRICS_WINDOW} seconds.
+     */
+    public double[] getFreezeMetrics(int frozenPlayers) {
+        double perPlayer = (double) METRICS_WINDOW * Math.max(1, frozenPlayers);
+        long moves = frozenMoves.sum();
+        return new double[]{
+            moves / perPlayer,
+            corrections.sum() / perPlayer,
+            moves > 0 ? moveHandlerNanos.sum() / 1000.0 / moves : 0
+        };
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        long start = System.nanoTime();
+        Player player = event.getPlayer();
+
+        if (configManager.isFreezeEnabled() && !isAuthenticated(player)) {
+            frozenMoves.increment();
+
+            // Head rotation and movement inside the same block are left alone
+            Location from = event.getFrom();
+            Location to = event.getTo();
+            if (to != null && (from.getBlockX() != to.getBlockX() || from.getBlockY() != to.getBlockY() ||
+                from.getBlockZ() != to.getBlockZ())) {
+                Location locked = from.clone();
+                locked.setYaw(to.getYaw());
+                locked.setPitch(to.getPitch());
+                event.setTo(locked);
+                corrections.increment();
+            }
+
+            moveHandlerNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerCommandPreprocess(PlayerCommandPreprocessEvent event) {
+        Player player = event.getPlayer();
+
+        if (!isAuthenticated(player)) {
+            String message = event.getMessage().toLowerCase();
+
+            if (!message.startsWith("/login") &&
+                !message.startsWith("/register") &&
+                !message.startsWith("/l ") &&
+                !message.startsWith("/reg ")) {
+
+                messageUtils.sendConfigMessage(player, "messages.must-authenticate");
+                event.setCancelled(true);
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerChat(AsyncPlayerChatEvent event) {
+        Player player = event.getPlayer();
+
+        if (!isAuthenticated(player)) {
+            messageUtils.sendConfigMessage(player, "messages.must-authenticate");
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerInteract(PlayerInteractEvent event) {
+        if (!isAuthenticated(event.getPlayer())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerInteractEntity(PlayerInteractEntityEvent event) {
+        if (!isAuthenticated(event.getPlayer())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (!(event.getWhoClicked() instanceof Player)) {
+            return;
+        }
+
+        Player player = (Player) event.getWhoClicked();
+        if (!isAuthenticated(player)) {
+            event.setCancelled(true);
+            player.closeInventory();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onInventoryOpen(InventoryOpenEvent event) {
+        if (!(event.getPlayer() instanceof Player)) {
+            return;
+        }
+
+        Player player = (Player) event.getPlayer();
+        if (!isAuthenticated(player)) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onEntityPickupItem(EntityPickupItemEvent event) {
+        if (!(event.getEntity() instanceof Player)) {
+            return;
+        }
+
+        Player player = (Player) event.getEntity();
+        if (!isAuthenticated(player)) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerDropItem(PlayerDropItemEvent event) {
+        if (!isAuthenticated(event.getPlayer())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onEntityDamage(EntityDamageEvent event) {
+        if (!(event.getEntity() instanceof Player)) {
+            return;
+        }
+
+        Player player = (Player) event.getEntity();
+        if (!isAuthenticated(player)) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        Player player = event.getPlayer();
+
+        if (!isAuthenticated(player)) {
+            org.bukkit.Location authSpawn = configManager.getAuthSpawn();
+            if (authSpawn != null && event.getTo() != null && !event.getTo().equals(authSpawn)) {
+                event.setCancelled(true);
+            }
+        }
+    }
+
+    private boolean isAuthenticated(Player player) {
+        return authStates.isAuthenticated(player.getUniqueId());
+    }
+}
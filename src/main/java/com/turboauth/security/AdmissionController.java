@@ -0,0 +1,130 @@
+package com.turboauth.security;
+
+import com.turboauth.TurboAuth;
+import com.turboauth.config.ConfigManager;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches join and registration rates and switches into attack mode when
+ * either crosses its threshold. Attack mode ends once both rates have stayed
+ * below {@code exit-ratio} of their thresholds for {@code exit-delay}
+ * seconds, so a flood that pauses briefly does not flap the mode.
+ */
+public class AdmissionController {
+
+    private final TurboAuth plugin;
+    private final boolean enabled;
+    private final long joinThreshold;
+    private final long registerThreshold;
+    private final double exitRatio;
+    private final long exitDelayNanos;
+    private final SlidingWindowCounter joins;
+    private final SlidingWindowCounter registrations;
+    private final RateLimiter<InetAddress> registrationsPerAddress;
+
+    private volatile boolean attackMode;
+    private long calmSince;
+    private boolean calm;
+    private BukkitTask ticker;
+
+    public AdmissionController(TurboAuth plugin) {
+        this.plugin = plugin;
+
+        ConfigManager configManager = plugin.getConfigManager();
+        this.enabled = configManager.isAttackModeEnabled();
+        this.joinThreshold = configManager.getAttackJoinThreshold();
+        this.registerThreshold = configManager.getAttackRegisterThreshold();
+        this.exitRatio = configManager.getAttackExitRatio();
+        this.exitDelayNanos = TimeUnit.SECONDS.toNanos(configManager.getAttackExitDelay());
+        this.joins = new SlidingWindowCounter(configManager.getAttackWindow());
+        this.registrations = new SlidingWindowCounter(configManager.getAttackWindow());
+
+        int perAddress = Math.max(1, configManager.getAttackRegistrationsPerIp());
+        this.registrationsPerAddress = new RateLimiter<>(perAddress, TimeUnit.HOURS.toNanos(1) / perAddress,
+            configManager.getRateLimitMaxEntries());
+    }
+
+    public void start() {
+        // Also re-evaluated once a second so attack mode can end while nobody joins
+        ticker = plugin.getServer().getScheduler().runTaskTimer(plugin, () -> {
+            update();
+            registrationsPerAddress.cleanup();
+        }, 20L, 20L);
+    }
+
+    public void stop() {
+        if (ticker != null) {
+            ticker.cancel();
+        }
+    }
+
+    public boolean isAttackMode() {
+        return attackMode;
+    }
+
+    public void recordJoin() {
+        joins.increment();
+        update();
+    }
+
+    public void recordRegistration(InetAddress address) {
+        registrations.increment();
+        if (address != null) {
+            registrationsPerAddress.consume(address);
+        }
+        update();
+    }
+
+    public boolean canRegister(InetAddress address) {
+        return !attackMode || address == null || registrationsPerAddress.getWaitNanos(address) == 0;
+    }
+
+    public long getRecentJoins() {
+        return joins.sum();
+    }
+
+    public long getRecentRegistrations() {
+        return registrations.sum();
+    }
+
+    public int getWindowSeconds() {
+        return joins.getWindowSeconds();
+    }
+
+    private synchronized void update() {
+        if (!enabled) {
+            return;
+        }
+
+        long joinCount = joins.sum();
+        long registrationCount = registrations.sum();
+
+        if (!attackMode) {
+            if (joinCount >= joinThreshold || registrationCount >= registerThreshold) {
+                attackMode = true;
+                calm = false;
+                plugin.getLogger().warning("Attack mode enabled: " + joinCount + " joins and " + registrationCount +
+                    " registrations in the last " + joins.getWindowSeconds() + "s");
+            }
+            return;
+        }
+
+        if (joinCount >= joinThreshold * exitRatio || registrationCount >= registerThreshold * exitRatio) {
+            calm = false;
+            return;
+        }
+
+        long now = System.nanoTime();
+        if (!calm) {
+            calm = true;
+            calmSince = now;
+        } else if (now - calmSince >= exitDelayNanos) {
+            attackMode = false;
+            calm = false;
+            plugin.getLogger().info("Attack mode disabled, join and registration rates are back to normal");
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.turboauth.security;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Path-compressed binary trie of IPv4 and IPv6 networks. A lookup walks at
+ * most one node per address bit (32 or 128) whatever the number of entries,
+ * and only branching points are stored, so memory stays proportional to the
+ * number of networks.
+ */
+public class CidrTrie<V> {
+
+    private final Node<V> ipv4Root;
+    private final Node<V> ipv6Root;
+    private final ReadWriteLock lock;
+    private int size;
+
+    public CidrTrie() {
+        this.ipv4Root = new Node<>(new byte[4], 0, null);
+        this.ipv6Root = new Node<>(new byte[16], 0, null);
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Returns the value of the most specific network containing the address.
+     */
+    public V lookup(InetAddress address) {
+        return lookup(address, value -> true);
+    }
+
+    /**
+     * Returns the value of the most specific network containing the address
+     * whose value passes {@code filter}, so a rejected match falls back to
+     * the broader networks around it.
+     */
+    public V lookup(InetAddress address, Predicate<V> filter) {
+        byte[] key = address.getAddress();
+
+        lock.readLock().lock();
+        try {
+            Node<V> node = root(address);
+            V best = null;
+            while (node != null && matches(key, node.key, node.prefixLength)) {
+                if (node.value != null && filter.test(node.value)) {
+                    best = node.value;
+                }
+                if (node.prefixLength == key.length * 8) {
+                    break;
+                }
+                node = node.children[bit(key, node.prefixLength)];
+            }
+            return best;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public V get(InetAddress network, int prefixLength) {
+        byte[] key = mask(network.getAddress(), prefixLength);
+
+        lock.readLock().lock();
+        try {
+            Node<V> node = root(network);
+            while (node != null && node.prefixLength <= prefixLength && matches(key, node.key, node.prefixLength)) {
+                if (node.prefixLength == prefixLength) {
+                    return node.value;
+                }
+                node = node.children[bit(key, node.prefixLength)];
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public V put(InetAddress network, int prefixLength, V value) {
+        byte[] key = mask(network.getAddress(), prefixLength);
+
+        lock.writeLock().lock();
+        try {
+            Node<V> node = root(network);
+            while (true) {
+                if (node.prefixLength == prefixLength) {
+                    V previous = node.value;
+                    node.value = value;
+                    if (previous == null) {
+                        size++;
+                    }
+                    return previous;
+                }
+
+                int branch = bit(key, node.prefixLength);
+                Node<V> child = node.children[branch];
+                if (child == null) {
+                    node.children[branch] = new Node<>(key, prefixLength, value);
+                    size++;
+                    return null;
+                }
+
+                int common = commonPrefix(key, child.key, Math.min(prefixLength, child.prefixLength));
+                if (common == child.prefixLength) {
+                    node = child;
+                    continue;
+                }
+
+                if (common == prefixLength) {
+                    // The new network contains the child
+                    Node<V> inserted = new Node<>(key, prefixLength, value);
+                    inserted.children[bit(child.key, prefixLength)] = child;
+                    node.children[branch] = inserted;
+                } else {
+                    Node<V> split = new Node<>(mask(key, common), common, null);
+                    split.children[bit(key, common)] = new Node<>(key, prefixLength, value);
+                    split.children[bit(child.key, common)] = child;
+                    node.children[branch] = split;
+                }
+                size++;
+                return null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public V remove(InetAddress network, int prefixLength) {
+        byte[] key = mask(network.getAddress(), prefixLength);
+
+        lock.writeLock().lock();
+        try {
+            Node<V> root = root(network);
+            Node<V> grandparent = null;
+            Node<V> parent = null;
+            Node<V> node = root;
+            while (node != null && node.prefixLength < prefixLength && matches(key, node.key, node.prefixLength)) {
+                grandparent = parent;
+                parent = node;
+                node = node.children[bit(key, node.prefixLength)];
+            }
+
+            if (node == null || node.prefixLength != prefixLength || !matches(key, node.key, prefixLength) || node.value == null) {
+                return null;
+            }
+
+            V previous = node.value;
+            node.value = null;
+            size--;
+
+            if (node == root) {
+                return previous;
+            }
+
+            // Drop nodes that no longer hold a value or branch
+            if (node.children[0] != null && node.children[1] != null) {
+                return previous;
+            }
+
+            Node<V> replacement = node.children[0] != null ? node.children[0] : node.children[1];
+            parent.children[bit(key, parent.prefixLength)] = replacement;
+
+            if (replacement == null && parent != root && parent.value == null) {
+                Node<V> remaining = parent.children[0] != null ? parent.children[0] : parent.children[1];
+                grandparent.children[bit(parent.key, grandparent.prefixLength)] = remaining;
+            }
+
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ipv4Root.children[0] = ipv4Root.children[1] = null;
+            ipv6Root.children[0] = ipv6Root.children[1] = null;
+            ipv4Root.value = null;
+            ipv6Root.value = null;
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Node<V> root(InetAddress address) {
+        return address instanceof Inet4Address ? ipv4Root : ipv6Root;
+    }
+
+    private static int bit(byte[] key, int index) {
+        return (key[index >>> 3] >>> (7 - (index & 7))) & 1;
+    }
+
+    private static boolean matches(byte[] key, byte[] prefix, int prefixLength) {
+        return commonPrefix(key, prefix, prefixLength) == prefixLength;
+    }
+
+    private static int commonPrefix(byte[] a, byte[] b, int limit) {
+        int length = 0;
+        for (int i = 0; length < limit; i++) {
+            int difference = (a[i] ^ b[i]) & 0xFF;
+            if (difference != 0) {
+                return Math.min(limit, length + Integer.numberOfLeadingZeros(difference) - 24);
+            }
+            length += 8;
+        }
+        return limit;
+    }
+
+    static byte[] mask(byte[] address, int prefixLength) {
+        byte[] masked = address.clone();
+        for (int i = 0; i < masked.length; i++) {
+            int bits = prefixLength - i * 8;
+            if (bits <= 0) {
+                masked[i] = 0;
+            } else if (bits < 8) {
+                masked[i] &= (byte) (0xFF << (8 - bits));
+            }
+        }
+        return masked;
+    }
+
+    private static final class Node<V> {
+
+        private final byte[] key;
+        private final int prefixLength;
+        @SuppressWarnings("unchecked")
+        private final Node<V>[] children = new Node[2];
+        private V value;
+
+        private Node(byte[] key, int prefixLength, V value) {
+            this.key = key;
+            this.prefixLength = prefixLength;
+            this.value = value;
+        }
+    }
+}
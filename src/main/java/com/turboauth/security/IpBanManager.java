@@ -0,0 +1,304 @@
+package com.turboauth.security;
+
+import com.turboauth.TurboAuth;
+import com.turboauth.utils.TimingWheel;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class IpBanManager {
+
+    // One-second ticks, one revolution per hour; longer bans wait extra rounds
+    private static final int WHEEL_SIZE = 3600;
+    private static final long SAVE_INTERVAL_MILLIS = 5000L;
+
+    private final TurboAuth plugin;
+    private final File bansFile;
+    private final CidrTrie<Ban> trie;
+    private final Map<String, Ban> bans;
+    private final TimingWheel<Ban> expiries;
+    private final ExecutorService writer;
+
+    private BukkitTask ticker;
+    private volatile boolean dirty;
+    private long lastSave;
+
+    public IpBanManager(TurboAuth plugin) {
+        this.plugin = plugin;
+        this.bansFile = new File(plugin.getDataFolder(), "ip-bans.yml");
+        this.trie = new CidrTrie<>();
+        this.bans = new ConcurrentHashMap<>();
+        this.expiries = new TimingWheel<>(WHEEL_SIZE, this::expire);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "TurboAuth-BanWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void load() {
+        if (bansFile.exists()) {
+            YamlConfiguration config = YamlConfiguration.loadConfiguration(bansFile);
+            long now = System.currentTimeMillis();
+            int skipped = 0;
+
+            for (Map<?, ?> entry : config.getMapList("bans")) {
+                try {
+                    Ban ban = parseNetwork(String.valueOf(entry.get("network")));
+                    ban.expiresAt = entry.get("expires") instanceof Number ? ((Number) entry.get("expires")).longValue() : 0L;
+                    ban.reason = entry.get("reason") != null ? String.valueOf(entry.get("reason")) : null;
+
+                    if (ban.isExpired(now)) {
+                        skipped++;
+                        continue;
+                    }
+                    add(ban);
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Invalid IP ban entry in " + bansFile.getName() + ": " + entry);
+                }
+            }
+
+            plugin.getLogger().info("Loaded " + bans.size() + " IP bans" + (skipped > 0 ? " (" + skipped + " expired)" : ""));
+        }
+
+        ticker = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 20L, 20L);
+    }
+
+    public Ban ban(String network, long durationSeconds, String reason) {
+        Ban ban = parseNetwork(network);
+        ban.expiresAt = durationSeconds > 0 ? System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(durationSeconds) : 0L;
+        ban.reason = reason;
+
+        add(ban);
+        dirty = true;
+        return ban;
+    }
+
+    public Ban ban(InetAddress address, long durationSeconds, String reason) {
+        return ban(address.getHostAddress(), durationSeconds, reason);
+    }
+
+    public boolean unban(String network) {
+        Ban ban = bans.remove(parseNetwork(network).getNetwork());
+        if (ban == null) {
+            return false;
+        }
+
+        trie.remove(ban.address, ban.prefixLength);
+        if (ban.timeout != null) {
+            ban.timeout.cancel();
+        }
+        dirty = true;
+        return true;
+    }
+
+    public Ban getBan(InetAddress address) {
+        // The wheel only runs once a second, so an expired ban may still be in the trie;
+        // skip it rather than let it hide a broader ban that still applies
+        long now = System.currentTimeMillis();
+        return trie.lookup(address, ban -> !ban.isExpired(now));
+    }
+
+    public List<Ban> getBans() {
+        List<Ban> result = new ArrayList<>(bans.values());
+        result.sort(Comparator.comparing(Ban::getNetwork));
+        return result;
+    }
+
+    public int size() {
+        return bans.size();
+    }
+
+    public void shutdown() {
+        if (ticker != null) {
+            ticker.cancel();
+        }
+
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (dirty) {
+            writeFile(snapshot());
+        }
+    }
+
+    private void add(Ban ban) {
+        Ban previous = bans.put(ban.getNetwork(), ban);
+        if (previous != null && previous.timeout != null) {
+            previous.timeout.cancel();
+        }
+
+        trie.put(ban.address, ban.prefixLength, ban);
+
+        if (!ban.isPermanent()) {
+            long delaySeconds = (ban.expiresAt - System.currentTimeMillis() + 999) / 1000;
+            ban.timeout = expiries.schedule(ban, delaySeconds);
+        }
+    }
+
+    private void expire(Ban ban) {
+        // Only drop the entry if it was not replaced by a newer ban on the same network
+        if (bans.remove(ban.getNetwork(), ban)) {
+            trie.remove(ban.address, ban.prefixLength);
+            dirty = true;
+        }
+    }
+
+    private void tick() {
+        expiries.advance();
+
+        long now = System.currentTimeMillis();
+        if (dirty && now - lastSave >= SAVE_INTERVAL_MILLIS) {
+            dirty = false;
+            lastSave = now;
+            List<Map<String, Object>> snapshot = snapshot();
+            writer.execute(() -> writeFile(snapshot));
+        }
+    }
+
+    private List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> entries = new ArrayList<>(bans.size());
+        for (Ban ban : getBans()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("network", ban.getNetwork());
+            entry.put("expires", ban.expiresAt);
+            if (ban.reason != null) {
+                entry.put("reason", ban.reason);
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private void writeFile(List<Map<String, Object>> entries) {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("bans", entries);
+        try {
+            config.save(bansFile);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error saving IP bans: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses an IP literal with an optional /prefix. Host names are rejected
+     * so this never triggers a DNS lookup.
+     */
+    public static Ban parseNetwork(String network) {
+        String ip = network;
+        int prefixLength = -1;
+
+        int slash = network.indexOf('/');
+        if (slash >= 0) {
+            ip = network.substring(0, slash);
+            try {
+                prefixLength = Integer.parseInt(network.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid prefix length in " + network);
+            }
+        }
+
+        if (ip.isEmpty() || (ip.indexOf(':') < 0 && !ip.chars().allMatch(c -> c == '.' || (c >= '0' && c <= '9')))) {
+            throw new IllegalArgumentException("Not an IP address: " + network);
+        }
+
+        InetAddress address;
+        try {
+            address = InetAddress.getByName(ip);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Not an IP address: " + network);
+        }
+
+        int maxLength = address instanceof Inet4Address ? 32 : 128;
+        if (prefixLength < 0) {
+            prefixLength = maxLength;
+        }
+        if (prefixLength > maxLength) {
+            throw new IllegalArgumentException("Prefix length must be between 0 and " + maxLength);
+        }
+
+        try {
+            return new Ban(InetAddress.getByAddress(CidrTrie.mask(address.getAddress(), prefixLength)), prefixLength);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Not an IP address: " + network);
+        }
+    }
+
+    public static String formatDuration(long seconds) {
+        if (seconds <= 0) {
+            return "0s";
+        }
+
+        StringBuilder result = new StringBuilder();
+        long days = seconds / 86400;
+        long hours = seconds % 86400 / 3600;
+        long minutes = seconds % 3600 / 60;
+        long remaining = seconds % 60;
+
+        if (days > 0) {
+            result.append(days).append("d ");
+        }
+        if (hours > 0) {
+            result.append(hours).append("h ");
+        }
+        if (minutes > 0) {
+            result.append(minutes).append("m ");
+        }
+        if (remaining > 0 || result.length() == 0) {
+            result.append(remaining).append("s ");
+        }
+        return result.toString().trim();
+    }
+
+    public static class Ban {
+
+        private final InetAddress address;
+        private final int prefixLength;
+        private long expiresAt;
+        private String reason;
+        private TimingWheel.Timeout<Ban> timeout;
+
+        private Ban(InetAddress address, int prefixLength) {
+            this.address = address;
+            this.prefixLength = prefixLength;
+        }
+
+        public String getNetwork() {
+            return address.getHostAddress() + "/" + prefixLength;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public boolean isPermanent() {
+            return expiresAt == 0;
+        }
+
+        public boolean isExpired(long now) {
+            return expiresAt != 0 && expiresAt <= now;
+        }
+
+        public long getRemainingSeconds() {
+            return isPermanent() ? -1 : Math.max(0, (expiresAt - System.currentTimeMillis() + 999) / 1000);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.turboauth.security;
+
+import java.net.InetAddress;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login rate limits built from token buckets:
+ * <ul>
+ *   <li>cooldown - one failed attempt per account every attempt-cooldown</li>
+ *   <li>account failures - max-login-attempts before a brute force kick</li>
+ *   <li>address failures - catches one IP cycling through many names</li>
+ *   <li>global - password checks per second across the whole server</li>
+ * </ul>
+ */
+public class LoginThrottle {
+
+    private final RateLimiter<UUID> cooldowns;
+    private final RateLimiter<UUID> accountFailures;
+    private final RateLimiter<InetAddress> addressFailures;
+    private final TokenBucket global;
+
+    public LoginThrottle(int attemptCooldownSeconds, int maxLoginAttempts, int addressMaxFailures,
+                         long addressRefillSeconds, int globalBurst, int globalPerSecond, int maxEntries) {
+        long cooldownNanos = TimeUnit.SECONDS.toNanos(Math.max(1, attemptCooldownSeconds));
+
+        // attempt-cooldown: 0 turns the cooldown off
+        this.cooldowns = attemptCooldownSeconds > 0 ? new RateLimiter<>(1, cooldownNanos, maxEntries) : null;
+        // A failure is forgiven after it has been waited out max-login-attempts times over
+        this.accountFailures = new RateLimiter<>(maxLoginAttempts, cooldownNanos * Math.max(1, maxLoginAttempts), maxEntries);
+        this.addressFailures = new RateLimiter<>(addressMaxFailures, TimeUnit.SECONDS.toNanos(Math.max(1, addressRefillSeconds)), maxEntries);
+        this.global = new TokenBucket(Math.max(1, globalBurst), TimeUnit.SECONDS.toNanos(1) / Math.max(1, globalPerSecond),
+            System.nanoTime());
+    }
+
+    public long getCooldownNanos(UUID uuid) {
+        return cooldowns != null ? cooldowns.getWaitNanos(uuid) : 0;
+    }
+
+    public boolean tryAcquireGlobal() {
+        return global.tryConsume(System.nanoTime());
+    }
+
+    /**
+     * Gives back a global token whose password check never ran.
+     */
+    public void releaseGlobal() {
+        global.refund();
+    }
+
+    /**
+     * Records a wrong password and returns true once the account or the
+     * address has used up its failures.
+     */
+    public boolean recordFailure(UUID uuid, InetAddress address) {
+        if (cooldowns != null) {
+            cooldowns.consume(uuid);
+        }
+        boolean accountExhausted = accountFailures.consume(uuid) == 0;
+        boolean addressExhausted = address != null && addressFailures.consume(address) == 0;
+        return accountExhausted || addressExhausted;
+    }
+
+    public int getFailedAttempts(UUID uuid) {
+        return accountFailures.getUsed(uuid);
+    }
+
+    public void reset(UUID uuid) {
+        if (cooldowns != null) {
+            cooldowns.reset(uuid);
+        }
+        accountFailures.reset(uuid);
+    }
+
+    public void cleanup() {
+        if (cooldowns != null) {
+            cooldowns.cleanup();
+        }
+        accountFailures.cleanup();
+        addressFailures.cleanup();
+    }
+
+    public int size() {
+        return (cooldowns != null ? cooldowns.size() : 0) + accountFailures.size() + addressFailures.size();
+    }
+}
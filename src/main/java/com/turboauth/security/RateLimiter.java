@@ -0,0 +1,97 @@
+package com.turboauth.security;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link TokenBucket} per key. A bucket that has refilled completely
+ * carries no state and is dropped by {@link #cleanup()}; when the map still
+ * reaches {@code maxEntries}, the least recently used tenth is evicted.
+ */
+public class RateLimiter<K> {
+
+    private final int capacity;
+    private final long refillNanos;
+    private final int maxEntries;
+    private final Map<K, TokenBucket> buckets;
+
+    public RateLimiter(int capacity, long refillNanos, int maxEntries) {
+        this.capacity = Math.max(1, capacity);
+        this.refillNanos = refillNanos;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.buckets = new ConcurrentHashMap<>();
+    }
+
+    public boolean tryAcquire(K key) {
+        long now = System.nanoTime();
+        return bucket(key, now).tryConsume(now);
+    }
+
+    /**
+     * Takes a token even if the bucket is empty and returns the whole
+     * tokens left.
+     */
+    public int consume(K key) {
+        long now = System.nanoTime();
+        return bucket(key, now).consume(now);
+    }
+
+    public long getWaitNanos(K key) {
+        TokenBucket bucket = buckets.get(key);
+        return bucket == null ? 0 : bucket.getWaitNanos(System.nanoTime());
+    }
+
+    public int getUsed(K key) {
+        TokenBucket bucket = buckets.get(key);
+        return bucket == null ? 0 : capacity - bucket.getAvailable(System.nanoTime());
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void reset(K key) {
+        buckets.remove(key);
+    }
+
+    public int cleanup() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private TokenBucket bucket(K key, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+
+        if (buckets.size() >= maxEntries) {
+            evict();
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillNanos, now));
+    }
+
+    private synchronized void evict() {
+        if (buckets.size() < maxEntries) {
+            return;
+        }
+
+        cleanup();
+        if (buckets.size() < maxEntries) {
+            return;
+        }
+
+        // Snapshot the access times first, buckets keep changing while we sort
+        long[] lastRefills = buckets.values().stream().mapToLong(TokenBucket::getLastRefill).toArray();
+        Arrays.sort(lastRefills);
+        long cutoff = lastRefills[Math.min(lastRefills.length - 1, lastRefills.length / 10)];
+        buckets.values().removeIf(bucket -> bucket.getLastRefill() <= cutoff);
+    }
+}
@@ -0,0 +1,52 @@
+package com.turboauth.security;
+
+import java.util.Arrays;
+
+/**
+ * Event count over the last {@code windowSeconds}, kept as one bucket per
+ * second in a ring so old seconds fall out without any cleanup pass.
+ */
+public class SlidingWindowCounter {
+
+    private final long[] counts;
+    private final long[] seconds;
+
+    public SlidingWindowCounter(int windowSeconds) {
+        this.counts = new long[Math.max(1, windowSeconds)];
+        this.seconds = new long[counts.length];
+        Arrays.fill(seconds, Long.MIN_VALUE);
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public synchronized void add(long amount) {
+        long now = currentSecond();
+        int index = (int) Math.floorMod(now, (long) counts.length);
+        if (seconds[index] != now) {
+            seconds[index] = now;
+            counts[index] = 0;
+        }
+        counts[index] += amount;
+    }
+
+    public synchronized long sum() {
+        long now = currentSecond();
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (seconds[i] > now - counts.length) {
+                total += counts[i];
+            }
+        }
+        return total;
+    }
+
+    public int getWindowSeconds() {
+        return counts.length;
+    }
+
+    private static long currentSecond() {
+        return Math.floorDiv(System.nanoTime(), 1_000_000_000L);
+    }
+}
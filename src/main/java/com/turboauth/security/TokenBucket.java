@@ -0,0 +1,74 @@
+package com.turboauth.security;
+
+/**
+ * Token bucket refilled continuously from {@link System#nanoTime()} deltas.
+ * Starts full; one token is regained every {@code refillNanos}.
+ */
+public class TokenBucket {
+
+    private final int capacity;
+    private final long refillNanos;
+
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(int capacity, long refillNanos, long now) {
+        this.capacity = capacity;
+        this.refillNanos = Math.max(1, refillNanos);
+        this.tokens = capacity;
+        this.lastRefill = now;
+    }
+
+    public synchronized boolean tryConsume(long now) {
+        refill(now);
+        if (tokens < 1) {
+            return false;
+        }
+
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    public synchronized int consume(long now) {
+        refill(now);
+        tokens = Math.max(0, tokens - 1);
+        return (int) tokens;
+    }
+
+    public synchronized long getWaitNanos(long now) {
+        refill(now);
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * refillNanos);
+    }
+
+    public synchronized int getAvailable(long now) {
+        refill(now);
+        return (int) tokens;
+    }
+
+    public synchronized boolean isFull(long now) {
+        refill(now);
+        return tokens >= capacity;
+    }
+
+    public synchronized long getLastRefill() {
+        return lastRefill;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed <= 0) {
+            return;
+        }
+
+        tokens = Math.min(capacity, tokens + (double) elapsed / refillNanos);
+        lastRefill = now;
+    }
+}
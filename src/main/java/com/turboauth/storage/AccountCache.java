@@ -0,0 +1,141 @@
+package com.turboauth.storage;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded LRU of loaded accounts. Pinned accounts (players who are
+ * online) live outside the LRU so they can never be evicted and are read
+ * without taking the cache lock.
+ */
+public class AccountCache {
+
+    private final int maxSize;
+    private final LinkedHashMap<UUID, StorageManager.PlayerData> lru;
+    private final Map<UUID, StorageManager.PlayerData> pinnedEntries;
+    private final Set<UUID> pinnedIds;
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    public AccountCache(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        this.lru = new LinkedHashMap<>(16, 0.75f, true);
+        this.pinnedEntries = new ConcurrentHashMap<>();
+        this.pinnedIds = ConcurrentHashMap.newKeySet();
+
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    public StorageManager.PlayerData get(UUID uuid) {
+        StorageManager.PlayerData data = peek(uuid);
+        if (data != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return data;
+    }
+
+    public StorageManager.PlayerData peek(UUID uuid) {
+        StorageManager.PlayerData data = pinnedEntries.get(uuid);
+        if (data != null) {
+            return data;
+        }
+
+        synchronized (this) {
+            return lru.get(uuid);
+        }
+    }
+
+    public boolean contains(UUID uuid) {
+        return peek(uuid) != null;
+    }
+
+    public synchronized StorageManager.PlayerData putIfAbsent(UUID uuid, StorageManager.PlayerData data) {
+        StorageManager.PlayerData existing = peek(uuid);
+        if (existing != null) {
+            return existing;
+        }
+
+        put(uuid, data);
+        return data;
+    }
+
+    public synchronized void put(UUID uuid, StorageManager.PlayerData data) {
+        if (pinnedIds.contains(uuid)) {
+            pinnedEntries.put(uuid, data);
+            return;
+        }
+
+        lru.put(uuid, data);
+        evictIfNeeded();
+    }
+
+    public synchronized StorageManager.PlayerData remove(UUID uuid) {
+        StorageManager.PlayerData data = pinnedEntries.remove(uuid);
+        StorageManager.PlayerData unpinned = lru.remove(uuid);
+        return data != null ? data : unpinned;
+    }
+
+    public synchronized void pin(UUID uuid) {
+        pinnedIds.add(uuid);
+
+        StorageManager.PlayerData data = lru.remove(uuid);
+        if (data != null) {
+            pinnedEntries.put(uuid, data);
+        }
+    }
+
+    public synchronized void unpin(UUID uuid) {
+        pinnedIds.remove(uuid);
+
+        StorageManager.PlayerData data = pinnedEntries.remove(uuid);
+        if (data != null) {
+            lru.put(uuid, data);
+            evictIfNeeded();
+        }
+    }
+
+    public synchronized void clear() {
+        lru.clear();
+        pinnedEntries.clear();
+    }
+
+    public synchronized int size() {
+        return lru.size() + pinnedEntries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private void evictIfNeeded() {
+        Iterator<StorageManager.PlayerData> iterator = lru.values().iterator();
+        while (lru.size() + pinnedEntries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+}
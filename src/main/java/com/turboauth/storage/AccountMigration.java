@@ -0,0 +1,305 @@
+package com.turboauth.storage;
+
+import com.turboauth.TurboAuth;
+import com.turboauth.utils.MessageTemplate;
+import net.kyori.adventure.text.Component;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Copies accounts from one store to another in parallel batches. Only the
+ * sorted UUID list is held in memory; records are loaded and written one
+ * batch at a time. The last UUID of the completed prefix is checkpointed so
+ * an interrupted run resumes where it stopped, and a final pass compares
+ * record counts and checksums between both stores.
+ */
+public class AccountMigration {
+
+    private static final int BATCH_SIZE = 500;
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final TurboAuth plugin;
+    private final AccountStore source;
+    private final AccountStore target;
+    private final File checkpointFile;
+    private final int parallelism;
+    private final Consumer<Component> reporter;
+
+    private boolean[] completedBatches;
+    private int completedPrefix;
+    private long lastReportTime;
+
+    public AccountMigration(TurboAuth plugin, AccountStore source, AccountStore target, File checkpointFile,
+                            int parallelism, Consumer<Component> reporter) {
+        this.plugin = plugin;
+        this.source = source;
+        this.target = target;
+        this.checkpointFile = checkpointFile;
+        this.parallelism = Math.max(1, parallelism);
+        this.reporter = reporter;
+    }
+
+    public boolean run() throws IOException, InterruptedException {
+        List<UUID> accounts = source.listAccounts();
+        Collections.sort(accounts);
+
+        int start = resumeIndex(accounts);
+        if (start > 0) {
+            report("&7Resuming after checkpoint: &e" + start + "&7/&e" + accounts.size() + " &7accounts already copied");
+        }
+
+        List<List<UUID>> batches = new ArrayList<>();
+        for (int i = start; i < accounts.size(); i += BATCH_SIZE) {
+            batches.add(accounts.subList(i, Math.min(i + BATCH_SIZE, accounts.size())));
+        }
+
+        completedBatches = new boolean[batches.size()];
+        completedPrefix = 0;
+
+        LongAdder copied = new LongAdder();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        long startTime = System.nanoTime();
+        lastReportTime = startTime;
+        int remaining = accounts.size() - start;
+
+        ExecutorService pool = newPool("TurboAuth-Migration");
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        try {
+            for (int i = 0; i < batches.size() && failure.get() == null; i++) {
+                inFlight.acquire();
+                int batchIndex = i;
+                List<UUID> batch = batches.get(i);
+                pool.execute(() -> {
+                    try {
+                        copyBatch(batch);
+                        copied.add(batch.size());
+                        markCompleted(batches, batchIndex, copied.sum());
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+                reportProgress(copied.sum(), remaining, startTime);
+            }
+        } finally {
+            pool.shutdown();
+            while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                reportProgress(copied.sum(), remaining, startTime);
+            }
+        }
+
+        if (failure.get() != null) {
+            report("&c&l✗ &7Migration stopped after &e" + copied.sum() + " &7accounts: &e{error} &7- run the command again to resume",
+                "error", String.valueOf(failure.get().getMessage()));
+            plugin.getLogger().severe("Account migration failed: " + failure.get().getMessage());
+            return false;
+        }
+
+        target.flush();
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        report("&7Copied &e" + copied.sum() + " &7accounts in &e" + (elapsedMillis / 1000.0) + "s &7(&e" +
+            (copied.sum() * 1000 / elapsedMillis) + " &7records/s), verifying...");
+
+        if (!verify(accounts)) {
+            return false;
+        }
+
+        if (checkpointFile.exists() && !checkpointFile.delete()) {
+            plugin.getLogger().warning("Could not delete migration checkpoint " + checkpointFile.getName());
+        }
+        return true;
+    }
+
+    private void copyBatch(List<UUID> batch) throws IOException {
+        List<StorageManager.PlayerData> records = new ArrayList<>(batch.size());
+        for (UUID uuid : batch) {
+            StorageManager.PlayerData data = source.load(uuid);
+            if (data != null) {
+                records.add(data);
+            }
+        }
+        target.saveAll(records);
+    }
+
+    private synchronized void markCompleted(List<List<UUID>> batches, int batchIndex, long copied) throws IOException {
+        completedBatches[batchIndex] = true;
+
+        int previousPrefix = completedPrefix;
+        while (completedPrefix < completedBatches.length && completedBatches[completedPrefix]) {
+            completedPrefix++;
+        }
+
+        if (completedPrefix > previousPrefix) {
+            List<UUID> lastBatch = batches.get(completedPrefix - 1);
+            writeCheckpoint(lastBatch.get(lastBatch.size() - 1), copied);
+        }
+    }
+
+    private boolean verify(List<UUID> accounts) throws IOException, InterruptedException {
+        LongAdder verified = new LongAdder();
+        LongAdder missing = new LongAdder();
+        LongAdder mismatched = new LongAdder();
+        LongAdder sourceChecksum = new LongAdder();
+        LongAdder targetChecksum = new LongAdder();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        ExecutorService pool = newPool("TurboAuth-Verify");
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        try {
+            for (int i = 0; i < accounts.size() && failure.get() == null; i += BATCH_SIZE) {
+                inFlight.acquire();
+                List<UUID> batch = accounts.subList(i, Math.min(i + BATCH_SIZE, accounts.size()));
+                pool.execute(() -> {
+                    try {
+                        for (UUID uuid : batch) {
+                            StorageManager.PlayerData expected = source.load(uuid);
+                            if (expected == null) {
+                                continue;
+                            }
+
+                            StorageManager.PlayerData actual = target.load(uuid);
+                            long expectedChecksum = checksum(expected);
+                            sourceChecksum.add(expectedChecksum);
+                            verified.increment();
+
+                            if (actual == null) {
+                                missing.increment();
+                                continue;
+                            }
+
+                            long actualChecksum = checksum(actual);
+                            targetChecksum.add(actualChecksum);
+                            if (actualChecksum != expectedChecksum) {
+                                mismatched.increment();
+                            }
+                        }
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+
+        if (failure.get() != null) {
+            throw new IOException("Verification failed: " + failure.get().getMessage(), failure.get());
+        }
+
+        String checksums = Long.toHexString(sourceChecksum.sum()) + "/" + Long.toHexString(targetChecksum.sum());
+        if (missing.sum() > 0 || mismatched.sum() > 0) {
+            report("&c&l✗ &7Verification failed: &e" + missing.sum() + " &7missing, &e" + mismatched.sum() +
+                " &7mismatched of &e" + verified.sum() + " &7accounts (checksum &e" + checksums + "&7)");
+            return false;
+        }
+
+        report("&a&l✓ &7Verified &e" + verified.sum() + " &7accounts, checksum &e" + checksums);
+        return true;
+    }
+
+    private void reportProgress(long copied, int total, long startTime) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (now - lastReportTime < REPORT_INTERVAL_NANOS) {
+                return;
+            }
+            lastReportTime = now;
+        }
+
+        double seconds = (now - startTime) / 1_000_000_000.0;
+        long rate = seconds > 0 ? (long) (copied / seconds) : 0;
+        String eta = rate > 0 ? ((total - copied) / rate) + "s" : "?";
+        report("&7Migrated &e" + copied + "&7/&e" + total + " &7accounts (&e" + rate + " &7records/s, ETA &e" + eta + "&7)");
+    }
+
+    private int resumeIndex(List<UUID> accounts) throws IOException {
+        if (!checkpointFile.exists()) {
+            return 0;
+        }
+
+        Properties checkpoint = new Properties();
+        try (Reader reader = new FileReader(checkpointFile, StandardCharsets.UTF_8)) {
+            checkpoint.load(reader);
+        }
+
+        String lastUuid = checkpoint.getProperty("last-uuid");
+        if (lastUuid == null) {
+            return 0;
+        }
+
+        UUID[] sorted = accounts.toArray(new UUID[0]);
+        int index = Arrays.binarySearch(sorted, UUID.fromString(lastUuid));
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private void writeCheckpoint(UUID lastUuid, long copied) throws IOException {
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty("last-uuid", lastUuid.toString());
+        checkpoint.setProperty("copied", String.valueOf(copied));
+
+        File temporary = new File(checkpointFile.getPath() + ".tmp");
+        try (Writer writer = new FileWriter(temporary, StandardCharsets.UTF_8)) {
+            checkpoint.store(writer, "TurboAuth account migration checkpoint");
+        }
+        if (!temporary.renameTo(checkpointFile)) {
+            checkpointFile.delete();
+            if (!temporary.renameTo(checkpointFile)) {
+                throw new IOException("Could not write migration checkpoint " + checkpointFile.getName());
+            }
+        }
+    }
+
+    private void report(String message, String... placeholders) {
+        reporter.accept(MessageTemplate.parse(message, placeholders));
+    }
+
+    private ExecutorService newPool(String name) {
+        return Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static long checksum(StorageManager.PlayerData data) {
+        CRC32 crc = new CRC32();
+        update(crc, data.getUuid().toString());
+        update(crc, data.getUsername());
+        update(crc, data.getPassword());
+        update(crc, String.valueOf(data.getRegistrationTime()));
+        update(crc, String.valueOf(data.getLastLoginTime()));
+        update(crc, data.getLastKnownIP());
+        return crc.getValue();
+    }
+
+    private static void update(CRC32 crc, String value) {
+        if (value != null) {
+            crc.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        crc.update(0);
+    }
+}
@@ -0,0 +1,34 @@
+package com.turboauth.storage;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface AccountStore {
+
+    void open() throws IOException;
+
+    Map<UUID, StorageManager.PlayerData> loadAll() throws IOException;
+
+    StorageManager.PlayerData load(UUID uuid) throws IOException;
+
+    Map<UUID, String> loadUsernames() throws IOException;
+
+    List<UUID> listAccounts();
+
+    boolean contains(UUID uuid);
+
+    void save(StorageManager.PlayerData data) throws IOException;
+
+    void saveAll(Collection<StorageManager.PlayerData> batch) throws IOException;
+
+    void delete(UUID uuid) throws IOException;
+
+    int size();
+
+    void flush() throws IOException;
+
+    void close() throws IOException;
+}
@@ -0,0 +1,212 @@
+package com.turboauth.storage;
+
+import com.turboauth.TurboAuth;
+import org.bukkit.Location;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Saved locations kept as fixed-size slots in a single file. Each UUID owns
+ * one slot for as long as it has a saved location, so a put or remove is a
+ * single positional write no matter how many players are waiting to log in.
+ */
+public class LocationJournal {
+
+    private static final int MAGIC = 0x54414C4A; // "TALJ"
+    private static final int FORMAT_VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int SLOT_SIZE = 128;
+    private static final int MAX_WORLD_NAME_BYTES = 64;
+    private static final int CHECKSUM_OFFSET = SLOT_SIZE - 4;
+
+    private static final byte SLOT_FREE = 0;
+    private static final byte SLOT_USED = 1;
+
+    private final TurboAuth plugin;
+    private final File journalFile;
+    private final Map<UUID, Integer> slots;
+    private final Deque<Integer> freeSlots;
+
+    private FileChannel channel;
+    private int slotCount;
+
+    public LocationJournal(TurboAuth plugin, File journalFile) {
+        this.plugin = plugin;
+        this.journalFile = journalFile;
+        this.slots = new HashMap<>();
+        this.freeSlots = new ArrayDeque<>();
+    }
+
+    public synchronized void open() throws IOException {
+        channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (channel.size() < FILE_HEADER_SIZE) {
+            channel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION);
+            header.flip();
+            writeFully(header, 0);
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        readFully(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+            throw new IOException(journalFile.getName() + " is not a TurboAuth location journal");
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return slots.isEmpty();
+    }
+
+    public synchronized Map<UUID, Location> load() throws IOException {
+        Map<UUID, Location> result = new HashMap<>();
+        slots.clear();
+        freeSlots.clear();
+
+        long dataSize = channel.size() - FILE_HEADER_SIZE;
+        slotCount = (int) (dataSize / SLOT_SIZE);
+        if (dataSize % SLOT_SIZE != 0) {
+            // Torn slot appended during a crash
+            channel.truncate(FILE_HEADER_SIZE + (long) slotCount * SLOT_SIZE);
+        }
+
+        ByteBuffer slot = ByteBuffer.allocate(SLOT_SIZE);
+        int corrupt = 0;
+        for (int index = 0; index < slotCount; index++) {
+            slot.clear();
+            readFully(slot, slotPosition(index));
+            slot.flip();
+
+            if (slot.get(0) != SLOT_USED) {
+                freeSlots.add(index);
+                continue;
+            }
+
+            if (checksum(slot.array()) != slot.getInt(CHECKSUM_OFFSET)) {
+                corrupt++;
+                releaseSlot(index);
+                continue;
+            }
+
+            slot.position(1);
+            UUID uuid = new UUID(slot.getLong(), slot.getLong());
+            if (slots.containsKey(uuid)) {
+                releaseSlot(index);
+                continue;
+            }
+
+            double x = slot.getDouble();
+            double y = slot.getDouble();
+            double z = slot.getDouble();
+            float yaw = slot.getFloat();
+            float pitch = slot.getFloat();
+            int worldLength = slot.getShort();
+            String worldName = new String(slot.array(), slot.position(), worldLength, StandardCharsets.UTF_8);
+
+            slots.put(uuid, index);
+            result.put(uuid, new Location(plugin.getServer().getWorld(worldName), x, y, z, yaw, pitch));
+        }
+
+        if (corrupt > 0) {
+            plugin.getLogger().warning("Discarded " + corrupt + " corrupt saved locations from " + journalFile.getName());
+        }
+
+        return result;
+    }
+
+    public synchronized void put(UUID uuid, Location location) throws IOException {
+        if (location == null || location.getWorld() == null) {
+            remove(uuid);
+            return;
+        }
+
+        byte[] worldName = location.getWorld().getName().getBytes(StandardCharsets.UTF_8);
+        if (worldName.length > MAX_WORLD_NAME_BYTES) {
+            plugin.getLogger().warning("World name too long to save location for " + uuid + ": " + location.getWorld().getName());
+            return;
+        }
+
+        ByteBuffer slot = ByteBuffer.allocate(SLOT_SIZE);
+        slot.put(SLOT_USED);
+        slot.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+        slot.putDouble(location.getX()).putDouble(location.getY()).putDouble(location.getZ());
+        slot.putFloat(location.getYaw()).putFloat(location.getPitch());
+        slot.putShort((short) worldName.length);
+        slot.put(worldName);
+        slot.putInt(CHECKSUM_OFFSET, checksum(slot.array()));
+        slot.clear();
+
+        Integer index = slots.get(uuid);
+        if (index == null) {
+            index = freeSlots.isEmpty() ? slotCount++ : freeSlots.poll();
+            slots.put(uuid, index);
+        }
+
+        writeFully(slot, slotPosition(index));
+    }
+
+    public synchronized void remove(UUID uuid) throws IOException {
+        Integer index = slots.remove(uuid);
+        if (index != null) {
+            releaseSlot(index);
+        }
+    }
+
+    public synchronized void flush() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.force(false);
+        }
+    }
+
+    public synchronized void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.force(true);
+            channel.close();
+        }
+    }
+
+    private void releaseSlot(int index) throws IOException {
+        writeFully(ByteBuffer.wrap(new byte[] {SLOT_FREE}), slotPosition(index));
+        freeSlots.add(index);
+    }
+
+    private static long slotPosition(int index) {
+        return FILE_HEADER_SIZE + (long) index * SLOT_SIZE;
+    }
+
+    private static int checksum(byte[] slot) {
+        CRC32 crc = new CRC32();
+        crc.update(slot, 0, CHECKSUM_OFFSET);
+        return (int) crc.getValue();
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of location journal at " + position);
+            }
+            position += read;
+        }
+    }
+}
@@ -0,0 +1,589 @@
+package com.turboauth.storage;
+
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Account store backed by a single append-only file. Every save appends a
+ * length-prefixed, CRC-checked binary record; the newest record for a UUID
+ * wins. Stale records are dropped by a background compaction once they make
+ * up enough of the file. On open, a torn record at the tail (from a crash
+ * mid-write) is truncated away and a record failing its checksum is skipped;
+ * either way the original file is first copied aside.
+ */
+public class LogAccountStore implements AccountStore {
+
+    private static final int MAGIC = 0x54414C47; // "TALG"
+    private static final int FORMAT_VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    private static final long COMPACTION_MIN_BYTES = 1L << 20;
+
+    private static final byte OP_PUT_TEXT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final byte OP_PUT = 3;
+
+    private final Logger logger;
+    private final File logFile;
+    private final double compactionRatio;
+    private final ExecutorService compactor;
+
+    private FileChannel channel;
+    private Map<UUID, RecordRef> index;
+    private long writePosition;
+    private long liveBytes;
+    private boolean compacting;
+    private int corruptRecords;
+
+    public LogAccountStore(Logger logger, File logFile, double compactionRatio) {
+        this.logger = logger;
+        this.logFile = logFile;
+        this.compactionRatio = compactionRatio;
+        this.index = new HashMap<>();
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "TurboAuth-Compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public synchronized void open() throws IOException {
+        channel = FileChannel.open(logFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (channel.size() < FILE_HEADER_SIZE) {
+            channel.truncate(0);
+            writeFileHeader(channel);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            readFully(channel, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException(logFile.getName() + " is not a TurboAuth account log");
+            }
+            int version = header.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported account log version " + version + " in " + logFile.getName());
+            }
+        }
+
+        if (recover()) {
+            // Rewrite the file without the skipped records so they are not reported again
+            startCompaction();
+        } else {
+            maybeCompact();
+        }
+    }
+
+    private boolean recover() throws IOException {
+        index.clear();
+        liveBytes = 0;
+
+        long end = channel.size();
+        long validEnd = scan(end, (position, size, body) -> applyToIndex(index, body, position, size));
+
+        if (corruptRecords > 0 || validEnd < end) {
+            File backup = new File(logFile.getPath() + ".bak-" + System.currentTimeMillis());
+            Files.copy(logFile.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            logger.warning("Account log " + logFile.getName() + " needs repair, copied it to " + backup.getName());
+        }
+
+        if (corruptRecords > 0) {
+            logger.warning("Skipped " + corruptRecords + " account log records with a bad checksum, " +
+                "the accounts they belong to keep their previous record");
+        }
+
+        if (validEnd < end) {
+            logger.warning("Truncating " + (end - validEnd) + " bytes of a torn record from the end of " + logFile.getName());
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+
+        writePosition = validEnd;
+        for (RecordRef ref : index.values()) {
+            liveBytes += ref.size;
+        }
+        return corruptRecords > 0;
+    }
+
+    @Override
+    public synchronized Map<UUID, StorageManager.PlayerData> loadAll() throws IOException {
+        Map<UUID, StorageManager.PlayerData> result = new HashMap<>(index.size() * 2);
+
+        scan(writePosition, (position, size, body) -> {
+            byte op = body.get();
+            UUID uuid = new UUID(body.getLong(), body.getLong());
+            if (op == OP_DELETE) {
+                result.remove(uuid);
+            } else {
+                result.put(uuid, decodePlayerData(op, uuid, body));
+            }
+        });
+
+        return result;
+    }
+
+    @Override
+    public synchronized StorageManager.PlayerData load(UUID uuid) throws IOException {
+        RecordRef ref = index.get(uuid);
+        if (ref == null) {
+            return null;
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(ref.size);
+        readFully(channel, record, ref.offset);
+        byte[] bytes = record.array();
+        ByteBuffer body = ByteBuffer.wrap(bytes, RECORD_HEADER_SIZE, ref.size - RECORD_HEADER_SIZE).slice();
+
+        int checksum = ByteBuffer.wrap(bytes, 4, 4).getInt();
+        if (checksum(bytes, RECORD_HEADER_SIZE, ref.size - RECORD_HEADER_SIZE) != checksum) {
+            throw new IOException("Checksum mismatch in account log record for " + uuid);
+        }
+
+        byte op = body.get(0);
+        body.position(17);
+        return decodePlayerData(op, uuid, body);
+    }
+
+    @Override
+    public synchronized Map<UUID, String> loadUsernames() throws IOException {
+        Map<UUID, String> result = new HashMap<>(index.size() * 2);
+
+        scan(writePosition, (position, size, body) -> {
+            byte op = body.get();
+            UUID uuid = new UUID(body.getLong(), body.getLong());
+            String username = op != OP_DELETE ? decodeString(body) : null;
+            if (username != null) {
+                result.put(uuid, username);
+            } else {
+                result.remove(uuid);
+            }
+        });
+
+        return result;
+    }
+
+    @Override
+    public synchronized List<UUID> listAccounts() {
+        return new ArrayList<>(index.keySet());
+    }
+
+    @Override
+    public synchronized boolean contains(UUID uuid) {
+        return index.containsKey(uuid);
+    }
+
+    @Override
+    public synchronized void save(StorageManager.PlayerData data) throws IOException {
+        appendPut(data);
+        maybeCompact();
+    }
+
+    @Override
+    public synchronized void saveAll(Collection<StorageManager.PlayerData> batch) throws IOException {
+        for (StorageManager.PlayerData data : batch) {
+            appendPut(data);
+        }
+        maybeCompact();
+    }
+
+    private void appendPut(StorageManager.PlayerData data) throws IOException {
+        ByteBuffer record = encodePut(data);
+        long offset = append(record);
+
+        RecordRef previous = index.put(data.getUuid(), new RecordRef(offset, record.capacity()));
+        liveBytes += record.capacity() - (previous != null ? previous.size : 0);
+    }
+
+    @Override
+    public synchronized void delete(UUID uuid) throws IOException {
+        if (!index.containsKey(uuid)) {
+            return;
+        }
+
+        ByteBuffer body = ByteBuffer.allocate(17);
+        body.put(OP_DELETE).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+        append(frame(body.array()));
+
+        RecordRef previous = index.remove(uuid);
+        liveBytes -= previous.size;
+        maybeCompact();
+    }
+
+    @Override
+    public synchronized int size() {
+        return index.size();
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            if (!compactor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warning("Account log compaction did not finish before shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this) {
+            if (channel != null && channel.isOpen()) {
+                channel.force(true);
+                channel.close();
+            }
+        }
+    }
+
+    private long append(ByteBuffer record) throws IOException {
+        long offset = writePosition;
+        record.rewind();
+        long position = offset;
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        writePosition = position;
+        return offset;
+    }
+
+    private void maybeCompact() {
+        long totalBytes = writePosition - FILE_HEADER_SIZE;
+        long deadBytes = totalBytes - liveBytes;
+
+        if (compacting || deadBytes < COMPACTION_MIN_BYTES || deadBytes < totalBytes * compactionRatio) {
+            return;
+        }
+        startCompaction();
+    }
+
+    private void startCompaction() {
+        compacting = true;
+        compactor.execute(() -> {
+            try {
+                compact();
+            } catch (IOException e) {
+                logger.severe("Error compacting account log: " + e.getMessage());
+            } finally {
+                synchronized (this) {
+                    compacting = false;
+                }
+            }
+        });
+    }
+
+    private void compact() throws IOException {
+        long startTime = System.currentTimeMillis();
+        long snapshotEnd;
+        List<Map.Entry<UUID, RecordRef>> snapshot;
+
+        synchronized (this) {
+            snapshotEnd = writePosition;
+            snapshot = new ArrayList<>(new HashMap<>(index).entrySet());
+        }
+        snapshot.sort(Comparator.comparingLong(entry -> entry.getValue().offset));
+
+        File compactFile = new File(logFile.getPath() + ".compact");
+        Map<UUID, RecordRef> newIndex = new HashMap<>(snapshot.size() * 2);
+        FileChannel out = FileChannel.open(compactFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+
+        try {
+            writeFileHeader(out);
+            long outPosition = FILE_HEADER_SIZE;
+
+            // Live records as of the snapshot; appends may continue meanwhile
+            for (Map.Entry<UUID, RecordRef> entry : snapshot) {
+                RecordRef ref = entry.getValue();
+                transfer(ref.offset, ref.size, out, outPosition);
+                newIndex.put(entry.getKey(), new RecordRef(outPosition, ref.size));
+                outPosition += ref.size;
+            }
+
+            synchronized (this) {
+                // Carry over records appended while the snapshot was being copied
+                long position = snapshotEnd;
+                while (position < writePosition) {
+                    ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+                    readFully(channel, header, position);
+                    header.flip();
+                    int size = RECORD_HEADER_SIZE + header.getInt();
+
+                    ByteBuffer body = ByteBuffer.allocate(size - RECORD_HEADER_SIZE);
+                    readFully(channel, body, position + RECORD_HEADER_SIZE);
+                    body.flip();
+
+                    transfer(position, size, out, outPosition);
+                    applyToIndex(newIndex, body, outPosition, size);
+                    outPosition += size;
+                    position += size;
+                }
+
+                out.force(true);
+                out.close();
+                channel.close();
+
+                try {
+                    Files.move(compactFile.toPath(), logFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(compactFile.toPath(), logFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+                }
+
+                long previousSize = writePosition;
+                index = newIndex;
+                writePosition = outPosition;
+                liveBytes = 0;
+                for (RecordRef ref : index.values()) {
+                    liveBytes += ref.size;
+                }
+
+                logger.info("Compacted account log from " + previousSize + " to " + writePosition +
+                    " bytes in " + (System.currentTimeMillis() - startTime) + "ms");
+            }
+        } finally {
+            if (out.isOpen()) {
+                out.close();
+            }
+            Files.deleteIfExists(compactFile.toPath());
+        }
+    }
+
+    private void transfer(long position, long count, FileChannel target, long targetPosition) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) count);
+        readFully(channel, buffer, position);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            targetPosition += target.write(buffer, targetPosition);
+        }
+    }
+
+    private long scan(long limit, RecordVisitor visitor) throws IOException {
+        long position = FILE_HEADER_SIZE;
+        corruptRecords = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(logFile), 1 << 16))) {
+            in.skipNBytes(FILE_HEADER_SIZE);
+
+            while (limit - position >= RECORD_HEADER_SIZE) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length <= 0 || length > MAX_RECORD_SIZE) {
+                    if (length == 0 && checksum == 0 && isZeroFilled(in, limit - position - RECORD_HEADER_SIZE)) {
+                        // Space the file system allocated but the crashed write never filled
+                        break;
+                    }
+                    throw new IOException("Corrupt record header at offset " + position + " in " + logFile.getName());
+                }
+                if (position + RECORD_HEADER_SIZE + length > limit) {
+                    // Torn tail record, everything before it is intact
+                    break;
+                }
+
+                byte[] body = new byte[length];
+                in.readFully(body);
+                if (checksum(body, 0, length) == checksum) {
+                    visitor.visit(position, RECORD_HEADER_SIZE + length, ByteBuffer.wrap(body));
+                } else {
+                    // The length prefix is intact, so the next record can still be found
+                    corruptRecords++;
+                }
+                position += RECORD_HEADER_SIZE + length;
+            }
+        } catch (EOFException e) {
+            // The file is shorter than the limit, nothing past this point was written
+        }
+
+        return position;
+    }
+
+    private static boolean isZeroFilled(DataInputStream in, long remaining) throws IOException {
+        byte[] buffer = new byte[8192];
+        while (remaining > 0) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read < 0) {
+                return true;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] != 0) {
+                    return false;
+                }
+            }
+            remaining -= read;
+        }
+        return true;
+    }
+
+    private static void applyToIndex(Map<UUID, RecordRef> target, ByteBuffer body, long position, int size) {
+        byte op = body.get(0);
+        UUID uuid = new UUID(body.getLong(1), body.getLong(9));
+        if (op == OP_DELETE) {
+            target.remove(uuid);
+        } else {
+            target.put(uuid, new RecordRef(position, size));
+        }
+    }
+
+    private static ByteBuffer encodePut(StorageManager.PlayerData data) {
+        byte[] username = encodeString(data.getUsername());
+        byte[] password = encodeString(data.getPassword());
+        byte[] address = data.getLastAddress();
+
+        int length = 17 + 2 + (username != null ? username.length : 0) + 2 + (password != null ? password.length : 0)
+            + 16 + 1 + (address != null ? address.length : 0);
+
+        ByteBuffer body = ByteBuffer.allocate(length);
+        body.put(OP_PUT);
+        body.putLong(data.getUuid().getMostSignificantBits());
+        body.putLong(data.getUuid().getLeastSignificantBits());
+        putString(body, username);
+        putString(body, password);
+        body.putLong(data.getRegistrationTime());
+        body.putLong(data.getLastLoginTime());
+        if (address == null) {
+            body.put((byte) 0);
+        } else {
+            body.put((byte) address.length);
+            body.put(address);
+        }
+
+        return frame(body.array());
+    }
+
+    private static StorageManager.PlayerData decodePlayerData(byte op, UUID uuid, ByteBuffer body) {
+        StorageManager.PlayerData data = new StorageManager.PlayerData();
+        data.setUuid(uuid);
+        data.setUsername(decodeString(body));
+        data.setPassword(decodeString(body));
+
+        if (op == OP_PUT_TEXT) {
+            // Records written before timestamps and addresses were stored packed
+            data.setRegistrationDate(decodeString(body));
+            data.setLastLoginDate(decodeString(body));
+            data.setLastKnownIP(decodeString(body));
+            return data;
+        }
+
+        data.setRegistrationTime(body.getLong());
+        data.setLastLoginTime(body.getLong());
+        int addressLength = body.get();
+        if (addressLength > 0) {
+            byte[] address = new byte[addressLength];
+            body.get(address);
+            data.setLastAddress(address);
+        }
+        return data;
+    }
+
+    private static void putString(ByteBuffer body, byte[] value) {
+        if (value == null) {
+            body.putShort((short) -1);
+        } else {
+            body.putShort((short) value.length);
+            body.put(value);
+        }
+    }
+
+    private static byte[] encodeString(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Field too long for account log: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static String decodeString(ByteBuffer body) {
+        short length = body.getShort();
+        if (length < 0) {
+            return null;
+        }
+
+        String value = new String(body.array(), body.arrayOffset() + body.position(), length, StandardCharsets.UTF_8);
+        body.position(body.position() + length);
+        return value;
+    }
+
+    private static ByteBuffer frame(byte[] body) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + body.length);
+        record.putInt(body.length);
+        record.putInt(checksum(body, 0, body.length));
+        record.put(body);
+        record.flip();
+        return record;
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static void writeFileHeader(FileChannel target) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION);
+        header.flip();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += target.write(header, position);
+        }
+    }
+
+    private static void readFully(FileChannel source, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = source.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of account log at " + position);
+            }
+            position += read;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(long position, int size, ByteBuffer body) throws IOException;
+    }
+
+    private static final class RecordRef {
+        private final long offset;
+        private final int size;
+
+        private RecordRef(long offset, int size) {
+            this.offset = offset;
+            this.size = size;
+        }
+    }
+}
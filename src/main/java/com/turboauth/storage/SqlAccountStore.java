@@ -0,0 +1,333 @@
+package com.turboauth.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Account store backed by an embedded SQLite database. Times are kept as
+ * epoch seconds in INTEGER columns, like PlayerData holds them; databases
+ * from before schema version 2 stored local-time text and are converted on
+ * open.
+ */
+public class SqlAccountStore implements AccountStore {
+
+    private static final int SCHEMA_VERSION = 2;
+
+    private static final String CREATE_TABLE =
+        "CREATE TABLE IF NOT EXISTS accounts (" +
+        "uuid TEXT PRIMARY KEY, " +
+        "username TEXT, " +
+        "username_lower TEXT, " +
+        "password TEXT, " +
+        "registration_time INTEGER, " +
+        "last_login_time INTEGER, " +
+        "last_ip TEXT)";
+    private static final String CREATE_USERNAME_INDEX =
+        "CREATE INDEX IF NOT EXISTS idx_accounts_username ON accounts (username_lower)";
+    private static final String CREATE_IP_INDEX =
+        "CREATE INDEX IF NOT EXISTS idx_accounts_last_ip ON accounts (last_ip)";
+
+    private static final String SELECT_COLUMNS =
+        "SELECT uuid, username, password, registration_time, last_login_time, last_ip FROM accounts";
+    private static final String UPSERT =
+        "INSERT INTO accounts (uuid, username, username_lower, password, registration_time, last_login_time, last_ip) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (uuid) DO UPDATE SET " +
+        "username = excluded.username, username_lower = excluded.username_lower, password = excluded.password, " +
+        "registration_time = excluded.registration_time, last_login_time = excluded.last_login_time, " +
+        "last_ip = excluded.last_ip";
+
+    private final File databaseFile;
+    private final SqlConnectionPool pool;
+    private final Set<UUID> knownAccounts;
+
+    public SqlAccountStore(File databaseFile, int poolSize) {
+        this.databaseFile = databaseFile;
+        this.pool = new SqlConnectionPool("jdbc:sqlite:" + databaseFile.getAbsolutePath(), poolSize);
+        this.knownAccounts = ConcurrentHashMap.newKeySet();
+    }
+
+    @Override
+    public void open() throws IOException {
+        try {
+            // Bundled with the server, loaded explicitly for the plugin class loader
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new IOException("SQLite JDBC driver is not available on this server", e);
+        }
+
+        try {
+            pool.open();
+        } catch (SQLException e) {
+            throw new IOException("Could not open " + databaseFile.getName() + ": " + e.getMessage(), e);
+        }
+
+        Connection connection = borrow();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+            statement.execute(CREATE_USERNAME_INDEX);
+            statement.execute(CREATE_IP_INDEX);
+            upgradeSchema(connection);
+
+            knownAccounts.clear();
+            try (ResultSet rs = statement.executeQuery("SELECT uuid FROM accounts")) {
+                while (rs.next()) {
+                    knownAccounts.add(UUID.fromString(rs.getString(1)));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("Error initializing " + databaseFile.getName() + ": " + e.getMessage(), e);
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    @Override
+    public Map<UUID, StorageManager.PlayerData> loadAll() throws IOException {
+        Map<UUID, StorageManager.PlayerData> result = new HashMap<>(knownAccounts.size() * 2);
+
+        Connection connection = borrow();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(SELECT_COLUMNS)) {
+            while (rs.next()) {
+                StorageManager.PlayerData data = readPlayerData(rs);
+                result.put(data.getUuid(), data);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Error loading accounts: " + e.getMessage(), e);
+        } finally {
+            pool.release(connection);
+        }
+
+        return result;
+    }
+
+    @Override
+    public StorageManager.PlayerData load(UUID uuid) throws IOException {
+        Connection connection = borrow();
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_COLUMNS + " WHERE uuid = ?")) {
+            statement.setString(1, uuid.toString());
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? readPlayerData(rs) : null;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Error loading account " + uuid + ": " + e.getMessage(), e);
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    @Override
+    public Map<UUID, String> loadUsernames() throws IOException {
+        Map<UUID, String> result = new HashMap<>(knownAccounts.size() * 2);
+
+        Connection connection = borrow();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT uuid, username FROM accounts WHERE username IS NOT NULL")) {
+            while (rs.next()) {
+                result.put(UUID.fromString(rs.getString(1)), rs.getString(2));
+            }
+        } catch (SQLException e) {
+            throw new IOException("Error loading usernames: " + e.getMessage(), e);
+        } finally {
+            pool.release(connection);
+        }
+
+        return result;
+    }
+
+    @Override
+    public List<UUID> listAccounts() {
+        return new ArrayList<>(knownAccounts);
+    }
+
+    @Override
+    public boolean contains(UUID uuid) {
+        return knownAccounts.contains(uuid);
+    }
+
+    @Override
+    public void save(StorageManager.PlayerData data) throws IOException {
+        saveAll(Collections.singletonList(data));
+    }
+
+    @Override
+    public void saveAll(Collection<StorageManager.PlayerData> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Connection connection = borrow();
+        try {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT)) {
+                for (StorageManager.PlayerData data : batch) {
+                    statement.setString(1, data.getUuid().toString());
+                    statement.setString(2, data.getUsername());
+                    statement.setString(3, data.getUsername() != null ? data.getUsername().toLowerCase(Locale.ROOT) : null);
+                    statement.setString(4, data.getPassword());
+                    setTime(statement, 5, data.getRegistrationTime());
+                    setTime(statement, 6, data.getLastLoginTime());
+                    statement.setString(7, data.getLastKnownIP());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Error saving " + batch.size() + " accounts: " + e.getMessage(), e);
+        } finally {
+            pool.release(connection);
+        }
+
+        for (StorageManager.PlayerData data : batch) {
+            knownAccounts.add(data.getUuid());
+        }
+    }
+
+    @Override
+    public void delete(UUID uuid) throws IOException {
+        Connection connection = borrow();
+        try (PreparedStatement statement = connection.prepareStatement("DELETE FROM accounts WHERE uuid = ?")) {
+            statement.setString(1, uuid.toString());
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new IOException("Error deleting account " + uuid + ": " + e.getMessage(), e);
+        } finally {
+            pool.release(connection);
+        }
+
+        knownAccounts.remove(uuid);
+    }
+
+    @Override
+    public int size() {
+        return knownAccounts.size();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        Connection connection = borrow();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA wal_checkpoint(PASSIVE)");
+        } catch (SQLException e) {
+            throw new IOException("Error checkpointing " + databaseFile.getName() + ": " + e.getMessage(), e);
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            pool.close();
+        } catch (SQLException e) {
+            throw new IOException("Error closing " + databaseFile.getName() + ": " + e.getMessage(), e);
+        }
+        knownAccounts.clear();
+    }
+
+    private void upgradeSchema(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            int version;
+            try (ResultSet rs = statement.executeQuery("PRAGMA user_version")) {
+                version = rs.next() ? rs.getInt(1) : 0;
+            }
+            if (version >= SCHEMA_VERSION) {
+                return;
+            }
+
+            boolean textDates = false;
+            try (ResultSet rs = statement.executeQuery("PRAGMA table_info(accounts)")) {
+                while (rs.next()) {
+                    textDates |= "registration_date".equals(rs.getString("name"));
+                }
+            }
+
+            connection.setAutoCommit(false);
+            try {
+                if (textDates) {
+                    convertTextDates(connection, statement);
+                }
+                statement.execute("PRAGMA user_version = " + SCHEMA_VERSION);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static void convertTextDates(Connection connection, Statement statement) throws SQLException {
+        statement.execute("ALTER TABLE accounts ADD COLUMN registration_time INTEGER");
+        statement.execute("ALTER TABLE accounts ADD COLUMN last_login_time INTEGER");
+
+        // Parsed the way PlayerData parses them, in the server's time zone
+        StorageManager.PlayerData converter = new StorageManager.PlayerData();
+        try (ResultSet rs = statement.executeQuery("SELECT uuid, registration_date, last_login_date FROM accounts");
+             PreparedStatement update = connection.prepareStatement(
+                 "UPDATE accounts SET registration_time = ?, last_login_time = ? WHERE uuid = ?")) {
+            while (rs.next()) {
+                converter.setRegistrationDate(rs.getString(2));
+                converter.setLastLoginDate(rs.getString(3));
+                setTime(update, 1, converter.getRegistrationTime());
+                setTime(update, 2, converter.getLastLoginTime());
+                update.setString(3, rs.getString(1));
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+
+        statement.execute("ALTER TABLE accounts DROP COLUMN registration_date");
+        statement.execute("ALTER TABLE accounts DROP COLUMN last_login_date");
+    }
+
+    private static void setTime(PreparedStatement statement, int index, long epochSecond) throws SQLException {
+        if (epochSecond == 0) {
+            statement.setNull(index, Types.INTEGER);
+        } else {
+            statement.setLong(index, epochSecond);
+        }
+    }
+
+    private Connection borrow() throws IOException {
+        try {
+            return pool.borrow();
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static StorageManager.PlayerData readPlayerData(ResultSet rs) throws SQLException {
+        StorageManager.PlayerData data = new StorageManager.PlayerData();
+        data.setUuid(UUID.fromString(rs.getString(1)));
+        data.setUsername(rs.getString(2));
+        data.setPassword(rs.getString(3));
+        data.setRegistrationTime(rs.getLong(4));
+        data.setLastLoginTime(rs.getLong(5));
+        data.setLastKnownIP(rs.getString(6));
+        return data;
+    }
+}
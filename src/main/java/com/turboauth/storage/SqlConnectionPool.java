@@ -0,0 +1,75 @@
+package com.turboauth.storage;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class SqlConnectionPool {
+
+    private static final long BORROW_TIMEOUT_SECONDS = 10;
+
+    private final String url;
+    private final int size;
+    private final BlockingQueue<Connection> idle;
+    private final List<Connection> all;
+
+    public SqlConnectionPool(String url, int size) {
+        this.url = url;
+        this.size = Math.max(1, size);
+        this.idle = new ArrayBlockingQueue<>(this.size);
+        this.all = new ArrayList<>(this.size);
+    }
+
+    public synchronized void open() throws SQLException {
+        for (int i = 0; i < size; i++) {
+            Connection connection = DriverManager.getConnection(url);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+                statement.execute("PRAGMA busy_timeout=5000");
+            }
+            all.add(connection);
+            idle.add(connection);
+        }
+    }
+
+    public Connection borrow() throws SQLException {
+        try {
+            Connection connection = idle.poll(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (connection == null) {
+                throw new SQLException("Timed out waiting for a database connection");
+            }
+            return connection;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    public void release(Connection connection) {
+        idle.offer(connection);
+    }
+
+    public synchronized void close() throws SQLException {
+        SQLException failure = null;
+        for (Connection connection : all) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                failure = e;
+            }
+        }
+        all.clear();
+        idle.clear();
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.turboauth.storage;
 
 import com.turboauth.TurboAuth;
+import com.turboauth.config.ConfigManager;
+import com.turboauth.utils.MessageTemplate;
+import net.kyori.adventure.text.Component;
 import org.bukkit.Location;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -8,23 +11,54 @@ import org.bukkit.entity.Player;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 public class StorageManager {
 
+    public static final List<String> STORAGE_TYPES = List.of("log", "sqlite", "yaml");
+    private static final String LEGACY_IMPORT_MARKER = "legacy-import.done";
+
     private final TurboAuth plugin;
     private File dataFolder;
-    private final Map<UUID, PlayerData> playerDataMap;
+    private String storageType;
+    private AccountStore accountStore;
+    private WriteBehindQueue writeBehindQueue;
+    private LocationJournal locationJournal;
+    private boolean lazyLoading;
+    private AccountCache accountCache;
+    private final UsernameIndex usernameIndex;
     private final Map<UUID, Location> savedLocations;
+    private final ExecutorService loader;
+    private final AtomicBoolean migrationRunning;
 
     public StorageManager(TurboAuth plugin) {
         this.plugin = plugin;
-        this.playerDataMap = new HashMap<>();
+        this.usernameIndex = new UsernameIndex();
         this.savedLocations = new HashMap<>();
+        this.migrationRunning = new AtomicBoolean();
+        this.loader = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "TurboAuth-Loader");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     public void initStorage() {
@@ -36,71 +70,281 @@ public class StorageManager {
         if (!dataFolder.exists() && !dataFolder.mkdirs()) {
             plugin.getLogger().warning("Could not create data folder: " + dataFolder.getAbsolutePath());
         }
+
+        this.lazyLoading = plugin.getConfigManager().isLazyLoading();
+        this.accountCache = new AccountCache(plugin.getConfigManager().getCacheMaxSize());
+        this.storageType = resolveStorageType(plugin.getConfigManager().getStorageType());
+        this.accountStore = createAccountStore(storageType);
+        try {
+            accountStore.open();
+            importLegacyData();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error opening account store: " + e.getMessage());
+        }
+
+        this.locationJournal = new LocationJournal(plugin, new File(plugin.getDataFolder(), "saved-locations.dat"));
+        try {
+            locationJournal.open();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error opening saved locations journal: " + e.getMessage());
+        }
+
+        ConfigManager configManager = plugin.getConfigManager();
+        this.writeBehindQueue = new WriteBehindQueue(plugin, accountStore,
+            configManager.getWriteBehindMaxDelay(), configManager.getWriteBehindMaxPending());
+    }
+
+    private String resolveStorageType(String type) {
+        String normalized = type == null ? "" : type.toLowerCase(Locale.ROOT);
+        if (STORAGE_TYPES.contains(normalized)) {
+            return normalized;
+        }
+
+        plugin.getLogger().warning("Unknown storage type '" + type + "', falling back to log");
+        return "log";
+    }
+
+    private AccountStore createAccountStore(String type) {
+        ConfigManager configManager = plugin.getConfigManager();
+
+        if ("yaml".equals(type)) {
+            return new YamlAccountStore(plugin.getLogger(), dataFolder);
+        }
+
+        if ("sqlite".equals(type)) {
+            return new SqlAccountStore(new File(dataFolder, "accounts.db"), configManager.getSqlitePoolSize());
+        }
+
+        return new LogAccountStore(plugin.getLogger(), new File(dataFolder, "accounts.dat"), configManager.getCompactionRatio());
+    }
+
+    private void importLegacyData() throws IOException {
+        // Only ever import once, or wiped accounts would come back from the old files on the next start
+        File marker = new File(dataFolder, LEGACY_IMPORT_MARKER);
+        if (accountStore instanceof YamlAccountStore || marker.exists()) {
+            return;
+        }
+
+        if (accountStore.size() == 0) {
+            YamlAccountStore legacyStore = new YamlAccountStore(plugin.getLogger(), dataFolder);
+            legacyStore.open();
+            if (legacyStore.size() > 0) {
+                Map<UUID, PlayerData> legacyData = legacyStore.loadAll();
+                accountStore.saveAll(legacyData.values());
+                accountStore.flush();
+
+                plugin.getLogger().info("Imported " + legacyData.size() + " legacy player files into the account store");
+                plugin.getLogger().warning("The imported player .yml files in " + dataFolder.getName() +
+                    " are no longer read and can be deleted once the import is verified");
+            }
+        }
+
+        Files.writeString(marker.toPath(), "Legacy player files imported at " + Instant.now() + "\n");
+    }
+
+    public boolean isMigrationRunning() {
+        return migrationRunning.get();
+    }
+
+    public boolean startMigration(String from, String to, Consumer<Component> reporter) {
+        if (!migrationRunning.compareAndSet(false, true)) {
+            return false;
+        }
+
+        // Saved locations live in the journal regardless of the account engine
+        importLegacyLocations();
+
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                migrateAccounts(from, to, reporter);
+            } finally {
+                migrationRunning.set(false);
+            }
+        });
+        return true;
     }
 
-    public Map<UUID, PlayerData> getPlayerDataMap() {
-        return playerDataMap;
+    private void migrateAccounts(String from, String to, Consumer<Component> reporter) {
+        AccountStore source = null;
+        AccountStore target = null;
+
+        try {
+            // The active engine is shared with the server, make sure it holds every pending change
+            writeBehindQueue.flushNow();
+
+            source = openMigrationStore(from);
+            target = openMigrationStore(to);
+
+            reporter.accept(MessageTemplate.parse("&7Migrating &e" + source.size() + " &7accounts from &e" + from + " &7to &e" + to + "&7..."));
+
+            File checkpointFile = new File(dataFolder, "migration-" + from + "-" + to + ".properties");
+            AccountMigration migration = new AccountMigration(plugin, source, target, checkpointFile,
+                plugin.getConfigManager().getMigrationThreads(), reporter);
+
+            if (migration.run()) {
+                plugin.getLogger().info("Migrated accounts from " + from + " to " + to);
+                reporter.accept(MessageTemplate.parse("&a&l✓ &7Migration complete! Set &estorage.type: " + to +
+                    " &7in config.yml and restart to use it."));
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error migrating accounts: " + e.getMessage());
+            reporter.accept(MessageTemplate.parse("&c&l✗ &7Migration failed: &e{error}", "error", String.valueOf(e.getMessage())));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reporter.accept(MessageTemplate.parse("&c&l✗ &7Migration interrupted, run the command again to resume"));
+        } finally {
+            closeMigrationStore(source);
+            closeMigrationStore(target);
+        }
     }
 
-    public Map<UUID, Location> getSavedLocationMap() {
-        return savedLocations;
+    private AccountStore openMigrationStore(String type) throws IOException {
+        // Never open a second handle on the engine the server is using
+        if (type.equals(storageType)) {
+            return accountStore;
+        }
+
+        AccountStore store = createAccountStore(type);
+        store.open();
+        return store;
+    }
+
+    private void closeMigrationStore(AccountStore store) {
+        if (store == null || store == accountStore) {
+            return;
+        }
+
+        try {
+            store.close();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error closing account store: " + e.getMessage());
+        }
+    }
+
+    public String getStorageType() {
+        return storageType;
+    }
+
+    public AccountStore getAccountStore() {
+        return accountStore;
+    }
+
+    public AccountCache getAccountCache() {
+        return accountCache;
     }
 
     public void loadData() {
         initStorage();
 
-        playerDataMap.clear();
+        // Pending writes only live in memory, get them into the store before the cache is dropped
+        writeBehindQueue.flushNow();
+
+        accountCache.clear();
+        usernameIndex.clear();
         savedLocations.clear();
 
-        File[] playerFiles = dataFolder.listFiles((dir, name) -> name.endsWith(".yml"));
-        if (playerFiles != null) {
-            for (File file : playerFiles) {
-                String uuidStr = file.getName().replace(".yml", "");
-                try {
-                    UUID uuid = UUID.fromString(uuidStr);
-                    PlayerData data = loadPlayerData(uuid);
-                    if (data != null) {
-                        playerDataMap.put(uuid, data);
+        if (lazyLoading) {
+            try {
+                indexUsernames(accountStore.loadUsernames());
+            } catch (IOException e) {
+                plugin.getLogger().severe("Error indexing usernames: " + e.getMessage());
+            }
+        } else {
+            try {
+                Map<UUID, PlayerData> allData = accountStore.loadAll();
+                Map<UUID, String> usernames = new HashMap<>(allData.size() * 2);
+                for (PlayerData data : allData.values()) {
+                    usernames.put(data.getUuid(), data.getUsername());
+                    if (accountCache.size() < accountCache.getMaxSize()) {
+                        accountCache.put(data.getUuid(), data);
                     }
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("Invalid UUID in filename: " + uuidStr);
                 }
+                indexUsernames(usernames);
+            } catch (IOException e) {
+                plugin.getLogger().severe("Error loading player data: " + e.getMessage());
             }
         }
 
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            warmPlayerData(player.getUniqueId());
+        }
+
         loadSavedLocations();
 
-        plugin.getLogger().info("Loaded data for " + playerDataMap.size() + " players");
+        plugin.getLogger().info("Indexed " + accountStore.size() + " accounts, " + accountCache.size() +
+            " loaded into the account cache");
     }
 
-    private PlayerData loadPlayerData(UUID uuid) {
-        File file = new File(dataFolder, uuid + ".yml");
-        if (!file.exists()) {
+    private void indexUsernames(Map<UUID, String> usernames) {
+        for (Map.Entry<UUID, String> entry : usernames.entrySet()) {
+            if (entry.getValue() == null) {
+                continue;
+            }
+
+            if (!usernameIndex.claim(entry.getValue(), entry.getKey())) {
+                plugin.getLogger().warning("Duplicate username '" + entry.getValue() + "' for " + entry.getKey() +
+                    ", already registered to " + usernameIndex.get(entry.getValue()));
+            }
+        }
+    }
+
+    public void warmPlayerData(UUID uuid) {
+        if (accountCache.get(uuid) == null) {
+            loadIntoCache(uuid);
+        }
+    }
+
+    public void pinPlayerData(UUID uuid) {
+        accountCache.pin(uuid);
+    }
+
+    public void unpinPlayerData(UUID uuid) {
+        accountCache.unpin(uuid);
+    }
+
+    private PlayerData loadIntoCache(UUID uuid) {
+        // A record evicted before its write-behind flush is newer than the store copy
+        PlayerData pending = writeBehindQueue.getPending(uuid);
+        if (pending != null) {
+            return accountCache.putIfAbsent(uuid, pending);
+        }
+
+        if (!accountStore.contains(uuid)) {
             return null;
         }
 
         try {
-            FileConfiguration config = YamlConfiguration.loadConfiguration(file);
-            PlayerData data = new PlayerData();
-            data.setUuid(uuid);
-            data.setUsername(config.getString("username"));
-            data.setPassword(config.getString("password"));
-            data.setRegistrationDate(config.getString("registration-date"));
-            data.setLastLoginDate(config.getString("last-login-date"));
-            data.setLastKnownIP(config.getString("last-ip"));
-            return data;
-        } catch (Exception e) {
+            PlayerData data = accountStore.load(uuid);
+            if (data == null) {
+                return null;
+            }
+
+            data.setUsername(usernameIndex.share(data.getUsername(), uuid));
+            return accountCache.putIfAbsent(uuid, data);
+        } catch (IOException e) {
             plugin.getLogger().severe("Error loading player data for " + uuid + ": " + e.getMessage());
             return null;
         }
     }
 
     private void loadSavedLocations() {
+        try {
+            savedLocations.putAll(locationJournal.load());
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error loading saved locations: " + e.getMessage());
+        }
+
+        importLegacyLocations();
+    }
+
+    private void importLegacyLocations() {
         File locationsFile = new File(plugin.getDataFolder(), "saved-locations.yml");
         if (!locationsFile.exists()) {
             return;
         }
 
+        int imported = 0;
+
         try {
             FileConfiguration config = YamlConfiguration.loadConfiguration(locationsFile);
             for (String uuidStr : config.getKeys(false)) {
@@ -120,36 +364,34 @@ public class StorageManager {
                         (float) config.getDouble(uuidStr + ".pitch")
                     );
 
-                    savedLocations.put(uuid, location);
+                    if (!savedLocations.containsKey(uuid)) {
+                        savedLocations.put(uuid, location);
+                        locationJournal.put(uuid, location);
+                        imported++;
+                    }
                 } catch (Exception e) {
                     plugin.getLogger().warning("Error loading saved location for UUID: " + uuidStr);
                 }
             }
         } catch (Exception e) {
             plugin.getLogger().severe("Error loading saved locations: " + e.getMessage());
+            return;
+        }
+
+        File migratedFile = new File(plugin.getDataFolder(), "saved-locations.yml.migrated");
+        if (!locationsFile.renameTo(migratedFile)) {
+            plugin.getLogger().warning("Could not rename " + locationsFile.getName() + " after importing it");
         }
+        plugin.getLogger().info("Imported " + imported + " saved locations from " + locationsFile.getName());
     }
 
     public void savePlayerData(UUID uuid) {
-        PlayerData data = playerDataMap.get(uuid);
+        PlayerData data = accountCache.peek(uuid);
         if (data == null) {
             return;
         }
 
-        File file = new File(dataFolder, uuid + ".yml");
-
-        try {
-            FileConfiguration config = new YamlConfiguration();
-            config.set("username", data.getUsername());
-            config.set("password", data.getPassword());
-            config.set("registration-date", data.getRegistrationDate());
-            config.set("last-login-date", data.getLastLoginDate());
-            config.set("last-ip", data.getLastKnownIP());
-
-            config.save(file);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Error saving player data for " + uuid + ": " + e.getMessage());
-        }
+        writeBehindQueue.markDirty(data);
     }
 
     public void saveAllData() {
@@ -157,45 +399,61 @@ public class StorageManager {
             return;
         }
 
-        for (UUID uuid : playerDataMap.keySet()) {
-            savePlayerData(uuid);
+        writeBehindQueue.flushNow();
+        try {
+            accountStore.flush();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error flushing account store: " + e.getMessage());
+        }
+
+        try {
+            locationJournal.flush();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error flushing saved locations: " + e.getMessage());
         }
-        saveSavedLocations();
     }
 
-    private void saveSavedLocations() {
-        File locationsFile = new File(plugin.getDataFolder(), "saved-locations.yml");
+    public void closeStorage() {
+        if (accountStore == null) {
+            return;
+        }
 
+        loader.shutdown();
+        writeBehindQueue.shutdown();
         try {
-            FileConfiguration config = new YamlConfiguration();
-            for (Map.Entry<UUID, Location> entry : savedLocations.entrySet()) {
-                Location location = entry.getValue();
-                if (location == null || location.getWorld() == null) {
-                    continue;
-                }
+            accountStore.close();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error closing account store: " + e.getMessage());
+        }
 
-                String uuidStr = entry.getKey().toString();
-                config.set(uuidStr + ".world", location.getWorld().getName());
-                config.set(uuidStr + ".x", location.getX());
-                config.set(uuidStr + ".y", location.getY());
-                config.set(uuidStr + ".z", location.getZ());
-                config.set(uuidStr + ".yaw", location.getYaw());
-                config.set(uuidStr + ".pitch", location.getPitch());
-            }
-            config.save(locationsFile);
+        try {
+            locationJournal.close();
         } catch (IOException e) {
-            plugin.getLogger().severe("Error saving saved locations: " + e.getMessage());
+            plugin.getLogger().severe("Error closing saved locations journal: " + e.getMessage());
         }
     }
 
     public void savePlayerLocation(Player player) {
-        savedLocations.put(player.getUniqueId(), player.getLocation());
-        saveSavedLocations();
+        Location location = player.getLocation();
+        savedLocations.put(player.getUniqueId(), location);
+
+        try {
+            locationJournal.put(player.getUniqueId(), location);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error saving location for " + player.getUniqueId() + ": " + e.getMessage());
+        }
     }
 
     public void removeSavedLocation(UUID uuid) {
-        savedLocations.remove(uuid);
-        saveSavedLocations();
+        if (savedLocations.remove(uuid) == null) {
+            return;
+        }
+
+        try {
+            locationJournal.remove(uuid);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error removing saved location for " + uuid + ": " + e.getMessage());
+        }
     }
 
     public Location getSavedLocation(UUID uuid) {
@@ -203,64 +461,131 @@ public class StorageManager {
     }
 
     public PlayerData getPlayerData(UUID uuid) {
-        return playerDataMap.get(uuid);
+        PlayerData data = accountCache.get(uuid);
+        return data != null ? data : loadIntoCache(uuid);
+    }
+
+    public CompletableFuture<PlayerData> getPlayerDataAsync(UUID uuid) {
+        PlayerData data = accountCache.get(uuid);
+        if (data != null) {
+            return CompletableFuture.completedFuture(data);
+        }
+        return CompletableFuture.supplyAsync(() -> loadIntoCache(uuid), loader);
     }
 
     public PlayerData getPlayerData(String username) {
-        return playerDataMap.values().stream()
-            .filter(data -> data.getUsername().equalsIgnoreCase(username))
-            .findFirst()
-            .orElse(null);
+        UUID uuid = usernameIndex.get(username);
+        return uuid != null ? getPlayerData(uuid) : null;
     }
 
-    public void createPlayerData(Player player, String password) {
+    public boolean createPlayerData(Player player, String password) {
+        if (!usernameIndex.claim(player.getName(), player.getUniqueId())) {
+            return false;
+        }
+
         PlayerData data = new PlayerData();
         data.setUuid(player.getUniqueId());
         data.setUsername(player.getName());
         data.setPassword(password);
-        data.setRegistrationDate(getCurrentDateTime());
-        data.setLastLoginDate(getCurrentDateTime());
-        data.setLastKnownIP(player.getAddress() != null ? player.getAddress().getHostString() : null);
+        long now = currentEpochSecond();
+        data.setRegistrationTime(now);
+        data.setLastLoginTime(now);
+        data.setLastAddress(getAddressBytes(player));
 
-        playerDataMap.put(player.getUniqueId(), data);
+        accountCache.put(player.getUniqueId(), data);
         savePlayerData(player.getUniqueId());
+        return true;
+    }
+
+    public void deletePlayerData(UUID uuid) {
+        PlayerData data = getPlayerData(uuid);
+        if (data == null) {
+            return;
+        }
+
+        accountCache.remove(uuid);
+        usernameIndex.remove(data.getUsername(), uuid);
+        writeBehindQueue.delete(uuid);
     }
 
     public void updatePlayerLogin(UUID uuid, Player player) {
-        PlayerData data = playerDataMap.get(uuid);
+        PlayerData data = getPlayerData(uuid);
         if (data == null) {
             return;
         }
 
-        data.setLastLoginDate(getCurrentDateTime());
-        data.setLastKnownIP(player.getAddress() != null ? player.getAddress().getHostString() : null);
+        if (!player.getName().equals(data.getUsername())) {
+            if (usernameIndex.rename(data.getUsername(), player.getName(), uuid)) {
+                data.setUsername(player.getName());
+            } else {
+                plugin.getLogger().warning("Cannot rename " + data.getUsername() + " to " + player.getName() +
+                    ": username is registered to another account");
+            }
+        }
+
+        data.setLastLoginTime(currentEpochSecond());
+        data.setLastAddress(getAddressBytes(player));
+        savePlayerData(uuid);
+    }
+
+    public void updatePlayerPassword(UUID uuid, String password) {
+        PlayerData data = getPlayerData(uuid);
+        if (data == null) {
+            return;
+        }
+
+        data.setPassword(password);
         savePlayerData(uuid);
     }
 
     public boolean playerExists(UUID uuid) {
-        return playerDataMap.containsKey(uuid);
+        return accountCache.contains(uuid) || writeBehindQueue.getPending(uuid) != null || accountStore.contains(uuid);
+    }
+
+    public CompletableFuture<Boolean> playerExistsAsync(UUID uuid) {
+        return CompletableFuture.supplyAsync(() -> playerExists(uuid), loader);
     }
 
     public boolean playerExists(String username) {
-        return playerDataMap.values().stream()
-            .anyMatch(data -> data.getUsername().equalsIgnoreCase(username));
+        return usernameIndex.contains(username);
     }
 
     public int playerDataSize() {
-        return playerDataMap.size();
+        return accountStore.size();
+    }
+
+    private long currentEpochSecond() {
+        return System.currentTimeMillis() / 1000L;
     }
 
-    private String getCurrentDateTime() {
-        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+    private byte[] getAddressBytes(Player player) {
+        InetSocketAddress address = player.getAddress();
+        if (address == null || address.getAddress() == null) {
+            return null;
+        }
+        return address.getAddress().getAddress();
     }
 
+    /**
+     * One account, kept compact because lazy loading aside every registered
+     * account may sit on the heap. Timestamps are epoch seconds and the last
+     * IP is the raw 4 or 16 address bytes; the String getters and setters
+     * convert on demand for storage formats that keep text. The username is
+     * the String instance held by the UsernameIndex, not a copy of it.
+     * <p>
+     * Target: at most 448 bytes of heap per loaded account, counting its
+     * account cache and username index entries. AccountFootprint in src/jmh
+     * measures this and fails above the target.
+     */
     public static class PlayerData {
+        private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
         private UUID uuid;
         private String username;
         private String password;
-        private String registrationDate;
-        private String lastLoginDate;
-        private String lastKnownIP;
+        private long registrationTime;
+        private long lastLoginTime;
+        private byte[] lastAddress;
 
         public UUID getUuid() {
             return uuid;
@@ -286,28 +611,104 @@ public class StorageManager {
             this.password = password;
         }
 
+        public long getRegistrationTime() {
+            return registrationTime;
+        }
+
+        public void setRegistrationTime(long registrationTime) {
+            this.registrationTime = registrationTime;
+        }
+
+        public long getLastLoginTime() {
+            return lastLoginTime;
+        }
+
+        public void setLastLoginTime(long lastLoginTime) {
+            this.lastLoginTime = lastLoginTime;
+        }
+
+        public byte[] getLastAddress() {
+            return lastAddress;
+        }
+
+        public void setLastAddress(byte[] lastAddress) {
+            this.lastAddress = lastAddress;
+        }
+
         public String getRegistrationDate() {
-            return registrationDate;
+            return formatTime(registrationTime);
         }
 
         public void setRegistrationDate(String registrationDate) {
-            this.registrationDate = registrationDate;
+            this.registrationTime = parseTime(registrationDate);
         }
 
         public String getLastLoginDate() {
-            return lastLoginDate;
+            return formatTime(lastLoginTime);
         }
 
         public void setLastLoginDate(String lastLoginDate) {
-            this.lastLoginDate = lastLoginDate;
+            this.lastLoginTime = parseTime(lastLoginDate);
         }
 
         public String getLastKnownIP() {
-            return lastKnownIP;
+            return formatAddress(lastAddress);
         }
 
         public void setLastKnownIP(String lastKnownIP) {
-            this.lastKnownIP = lastKnownIP;
+            this.lastAddress = parseAddress(lastKnownIP);
+        }
+
+        private static String formatTime(long epochSecond) {
+            if (epochSecond == 0) {
+                return null;
+            }
+            return Instant.ofEpochSecond(epochSecond).atZone(ZoneId.systemDefault()).format(DATE_FORMAT);
+        }
+
+        private static long parseTime(String date) {
+            if (date == null || date.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                return LocalDateTime.parse(date, DATE_FORMAT).atZone(ZoneId.systemDefault()).toEpochSecond();
+            } catch (DateTimeParseException e) {
+                return 0;
+            }
+        }
+
+        private static String formatAddress(byte[] address) {
+            if (address == null) {
+                return null;
+            }
+
+            if (address.length == 4) {
+                return (address[0] & 0xFF) + "." + (address[1] & 0xFF) + "." + (address[2] & 0xFF) + "." + (address[3] & 0xFF);
+            }
+
+            try {
+                return InetAddress.getByAddress(address).getHostAddress();
+            } catch (UnknownHostException e) {
+                return null;
+            }
+        }
+
+        private static byte[] parseAddress(String ip) {
+            if (ip == null || ip.isEmpty()) {
+                return null;
+            }
+
+            // Only literal addresses are stored; never trigger a DNS lookup here
+            if (ip.indexOf(':') < 0 && !ip.chars().allMatch(c -> c == '.' || (c >= '0' && c <= '9'))) {
+                return null;
+            }
+
+            try {
+                return InetAddress.getByName(ip).getAddress();
+            } catch (UnknownHostException e) {
+                return null;
+            }
         }
     }
 }
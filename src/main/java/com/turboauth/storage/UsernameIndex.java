@@ -0,0 +1,114 @@
+package com.turboauth.storage;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Case-insensitive username to account lookup. Names are kept as registered
+ * rather than as lowercased copies, so a loaded PlayerData can share the
+ * indexed String instead of holding its own (see {@link #share}).
+ */
+public class UsernameIndex {
+
+    private final Map<Name, Name> names;
+
+    public UsernameIndex() {
+        this.names = new ConcurrentHashMap<>();
+    }
+
+    public UUID get(String username) {
+        Name name = find(username);
+        return name != null ? name.uuid : null;
+    }
+
+    public boolean contains(String username) {
+        return get(username) != null;
+    }
+
+    /**
+     * The indexed instance of {@code username} if it is registered to
+     * {@code uuid} in exactly this case, otherwise {@code username} itself.
+     */
+    public String share(String username, UUID uuid) {
+        Name name = find(username);
+        return name != null && name.uuid.equals(uuid) && name.username.equals(username) ? name.username : username;
+    }
+
+    public boolean claim(String username, UUID uuid) {
+        if (username == null) {
+            return false;
+        }
+
+        Name name = new Name(username, uuid);
+        Name owner = names.putIfAbsent(name, name);
+        if (owner == null) {
+            return true;
+        }
+
+        if (!owner.uuid.equals(uuid)) {
+            return false;
+        }
+
+        // Same account with a new capitalisation, keep the name as now written
+        if (!owner.username.equals(username)) {
+            names.replace(name, owner, name);
+        }
+        return true;
+    }
+
+    public boolean rename(String oldName, String newName, UUID uuid) {
+        if (!claim(newName, uuid)) {
+            return false;
+        }
+
+        if (oldName != null && !oldName.equalsIgnoreCase(newName)) {
+            remove(oldName, uuid);
+        }
+        return true;
+    }
+
+    public void remove(String username, UUID uuid) {
+        Name name = find(username);
+        if (name != null && name.uuid.equals(uuid)) {
+            names.remove(name, name);
+        }
+    }
+
+    public void clear() {
+        names.clear();
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    private Name find(String username) {
+        return username != null ? names.get(new Name(username, null)) : null;
+    }
+
+    private static final class Name {
+        private final String username;
+        private final UUID uuid;
+
+        private Name(String username, UUID uuid) {
+            this.username = username;
+            this.uuid = uuid;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Name && username.equalsIgnoreCase(((Name) other).username);
+        }
+
+        @Override
+        public int hashCode() {
+            // Folds case the same way as equalsIgnoreCase
+            int hash = 0;
+            for (int i = 0; i < username.length(); i++) {
+                hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(username.charAt(i)));
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.turboauth.storage;
+
+import com.turboauth.TurboAuth;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class WriteBehindQueue {
+
+    private final TurboAuth plugin;
+    private final AccountStore accountStore;
+    private final long maxDelayMillis;
+    private final int maxPending;
+
+    private final Map<UUID, StorageManager.PlayerData> dirty;
+    private final Map<UUID, StorageManager.PlayerData> inFlight;
+    private final AtomicBoolean flushScheduled;
+    private final AtomicBoolean immediateFlushQueued;
+    private final ScheduledExecutorService executor;
+
+    public WriteBehindQueue(TurboAuth plugin, AccountStore accountStore, long maxDelayMillis, int maxPending) {
+        this.plugin = plugin;
+        this.accountStore = accountStore;
+        this.maxDelayMillis = Math.max(0L, maxDelayMillis);
+        this.maxPending = Math.max(1, maxPending);
+
+        this.dirty = new ConcurrentHashMap<>();
+        this.inFlight = new ConcurrentHashMap<>();
+        this.flushScheduled = new AtomicBoolean(false);
+        this.immediateFlushQueued = new AtomicBoolean(false);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "TurboAuth-Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void markDirty(StorageManager.PlayerData data) {
+        // Repeated updates to the same account collapse into one pending write
+        dirty.put(data.getUuid(), data);
+
+        if (dirty.size() >= maxPending) {
+            if (immediateFlushQueued.compareAndSet(false, true)) {
+                executor.execute(() -> {
+                    immediateFlushQueued.set(false);
+                    flush();
+                });
+            }
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            executor.schedule(() -> {
+                flushScheduled.set(false);
+                flush();
+            }, maxDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public StorageManager.PlayerData getPending(UUID uuid) {
+        // Records being saved stay visible until the store holds them
+        StorageManager.PlayerData data = dirty.get(uuid);
+        return data != null ? data : inFlight.get(uuid);
+    }
+
+    public int pendingCount() {
+        return dirty.size();
+    }
+
+    public void delete(UUID uuid) {
+        dirty.remove(uuid);
+        inFlight.remove(uuid);
+        executor.execute(() -> {
+            dirty.remove(uuid);
+            try {
+                accountStore.delete(uuid);
+            } catch (IOException e) {
+                plugin.getLogger().severe("Error deleting player data for " + uuid + ": " + e.getMessage());
+            }
+        });
+    }
+
+    public void flushNow() {
+        try {
+            executor.submit(this::flush).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            plugin.getLogger().severe("Error flushing pending player data: " + e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Pending player data writes did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Anything marked after the executor stopped is written on the calling thread
+        flush();
+    }
+
+    private synchronized void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<StorageManager.PlayerData> batch = new ArrayList<>(dirty.size());
+        for (UUID uuid : dirty.keySet()) {
+            StorageManager.PlayerData data = dirty.get(uuid);
+            if (data != null) {
+                // Published before leaving dirty, so getPending never misses it; a newer write stays in dirty
+                inFlight.put(uuid, data);
+                dirty.remove(uuid, data);
+                batch.add(data);
+            }
+        }
+
+        try {
+            accountStore.saveAll(batch);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error saving " + batch.size() + " player records, retrying later: " + e.getMessage());
+            for (StorageManager.PlayerData data : batch) {
+                dirty.putIfAbsent(data.getUuid(), data);
+            }
+        } finally {
+            for (StorageManager.PlayerData data : batch) {
+                inFlight.remove(data.getUuid(), data);
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.turboauth.storage;
+
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+public class YamlAccountStore implements AccountStore {
+
+    private static final int FILES_PER_TASK = 256;
+
+    private final Logger logger;
+    private final File dataFolder;
+    private final Set<UUID> knownAccounts;
+    private volatile boolean indexed;
+
+    public YamlAccountStore(Logger logger, File dataFolder) {
+        this.logger = logger;
+        this.dataFolder = dataFolder;
+        this.knownAccounts = ConcurrentHashMap.newKeySet();
+    }
+
+    @Override
+    public void open() {
+        // Accounts are indexed by the first scan, so a file that does not parse is never counted
+        knownAccounts.clear();
+        indexed = false;
+    }
+
+    @Override
+    public Map<UUID, StorageManager.PlayerData> loadAll() throws IOException {
+        long startTime = System.nanoTime();
+
+        File[] playerFiles = listPlayerFiles();
+        if (playerFiles == null) {
+            indexed = true;
+            return new HashMap<>();
+        }
+
+        long listedTime = System.nanoTime();
+        List<StorageManager.PlayerData> parsed = parseFiles(playerFiles, this::loadPlayerData);
+        long parsedTime = System.nanoTime();
+
+        Map<UUID, StorageManager.PlayerData> result = new HashMap<>(playerFiles.length * 2);
+        for (StorageManager.PlayerData data : parsed) {
+            result.put(data.getUuid(), data);
+        }
+        knownAccounts.addAll(result.keySet());
+        indexed = true;
+
+        long indexedTime = System.nanoTime();
+
+        logger.info("Loaded " + result.size() + " of " + playerFiles.length + " player files in " +
+            millisBetween(startTime, indexedTime) + "ms (listing " + millisBetween(startTime, listedTime) +
+            "ms, parsing " + millisBetween(listedTime, parsedTime) + "ms, indexing " +
+            millisBetween(parsedTime, indexedTime) + "ms)");
+
+        return result;
+    }
+
+    private <T> List<T> parseFiles(File[] playerFiles, Function<UUID, T> parser) throws IOException {
+        // Parse files in chunks on virtual threads; each chunk collects its own results
+        List<Future<List<T>>> chunks = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int start = 0; start < playerFiles.length; start += FILES_PER_TASK) {
+                int from = start;
+                int to = Math.min(start + FILES_PER_TASK, playerFiles.length);
+                chunks.add(executor.submit(() -> parseChunk(playerFiles, from, to, parser)));
+            }
+        }
+
+        List<T> result = new ArrayList<>(playerFiles.length);
+        for (Future<List<T>> chunk : chunks) {
+            try {
+                result.addAll(chunk.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while loading player files", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Error loading player files", e.getCause());
+            }
+        }
+        return result;
+    }
+
+    private <T> List<T> parseChunk(File[] playerFiles, int from, int to, Function<UUID, T> parser) {
+        List<T> parsed = new ArrayList<>(to - from);
+
+        for (int i = from; i < to; i++) {
+            UUID uuid = parseUuid(playerFiles[i]);
+            if (uuid == null) {
+                logger.warning("Invalid UUID in filename: " + playerFiles[i].getName().replace(".yml", ""));
+                continue;
+            }
+
+            T value = parser.apply(uuid);
+            if (value != null) {
+                parsed.add(value);
+            }
+        }
+
+        return parsed;
+    }
+
+    private static long millisBetween(long startNanos, long endNanos) {
+        return (endNanos - startNanos) / 1_000_000L;
+    }
+
+    @Override
+    public StorageManager.PlayerData load(UUID uuid) {
+        return loadPlayerData(uuid);
+    }
+
+    @Override
+    public synchronized Map<UUID, String> loadUsernames() throws IOException {
+        File[] playerFiles = listPlayerFiles();
+        if (playerFiles == null) {
+            indexed = true;
+            return new HashMap<>();
+        }
+
+        Map<UUID, String> result = new HashMap<>(playerFiles.length * 2);
+        for (Map.Entry<UUID, String> entry : parseFiles(playerFiles, this::loadUsername)) {
+            knownAccounts.add(entry.getKey());
+            if (entry.getValue() != null) {
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        indexed = true;
+        return result;
+    }
+
+    @Override
+    public List<UUID> listAccounts() {
+        ensureIndexed();
+        return new ArrayList<>(knownAccounts);
+    }
+
+    @Override
+    public boolean contains(UUID uuid) {
+        ensureIndexed();
+        return knownAccounts.contains(uuid);
+    }
+
+    private void ensureIndexed() {
+        if (indexed) {
+            return;
+        }
+
+        try {
+            synchronized (this) {
+                if (!indexed) {
+                    loadUsernames();
+                }
+            }
+        } catch (IOException e) {
+            logger.severe("Error indexing player files: " + e.getMessage());
+        }
+    }
+
+    private Map.Entry<UUID, String> loadUsername(UUID uuid) {
+        try {
+            YamlConfiguration config = new YamlConfiguration();
+            config.load(new File(dataFolder, uuid + ".yml"));
+            return new AbstractMap.SimpleImmutableEntry<>(uuid, config.getString("username"));
+        } catch (Exception e) {
+            logger.severe("Error loading player data for " + uuid + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private StorageManager.PlayerData loadPlayerData(UUID uuid) {
+        File file = new File(dataFolder, uuid + ".yml");
+        if (!file.exists()) {
+            return null;
+        }
+
+        try {
+            YamlConfiguration config = new YamlConfiguration();
+            config.load(file);
+            StorageManager.PlayerData data = new StorageManager.PlayerData();
+            data.setUuid(uuid);
+            data.setUsername(config.getString("username"));
+            data.setPassword(config.getString("password"));
+            data.setRegistrationDate(config.getString("registration-date"));
+            data.setLastLoginDate(config.getString("last-login-date"));
+            data.setLastKnownIP(config.getString("last-ip"));
+            return data;
+        } catch (Exception e) {
+            logger.severe("Error loading player data for " + uuid + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void save(StorageManager.PlayerData data) throws IOException {
+        File file = new File(dataFolder, data.getUuid() + ".yml");
+
+        FileConfiguration config = new YamlConfiguration();
+        config.set("username", data.getUsername());
+        config.set("password", data.getPassword());
+        config.set("registration-date", data.getRegistrationDate());
+        config.set("last-login-date", data.getLastLoginDate());
+        config.set("last-ip", data.getLastKnownIP());
+
+        config.save(file);
+        knownAccounts.add(data.getUuid());
+    }
+
+    @Override
+    public void saveAll(Collection<StorageManager.PlayerData> batch) throws IOException {
+        for (StorageManager.PlayerData data : batch) {
+            save(data);
+        }
+    }
+
+    @Override
+    public void delete(UUID uuid) throws IOException {
+        File file = new File(dataFolder, uuid + ".yml");
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Could not delete " + file.getAbsolutePath());
+        }
+        knownAccounts.remove(uuid);
+    }
+
+    @Override
+    public int size() {
+        ensureIndexed();
+        return knownAccounts.size();
+    }
+
+    @Override
+    public void flush() {
+        // Every save is written straight to its own file
+    }
+
+    @Override
+    public void close() {
+        knownAccounts.clear();
+    }
+
+    private File[] listPlayerFiles() {
+        return dataFolder.listFiles((dir, name) -> name.endsWith(".yml"));
+    }
+
+    private UUID parseUuid(File file) {
+        try {
+            return UUID.fromString(file.getName().replace(".yml", ""));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.turboauth.utils;
+
+import com.turboauth.TurboAuth;
+import com.turboauth.config.ConfigManager;
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Plays the configured action bar animation for any number of players from
+ * a single timer. Frames are rendered when the config is loaded, so a tick
+ * only looks up each player's current frame and sends it.
+ */
+public class ActionBarAnimator {
+
+    private final TurboAuth plugin;
+    private final ConfigManager configManager;
+    private final Map<UUID, Playback> playing;
+
+    private BukkitTask ticker;
+    private long tick;
+
+    public ActionBarAnimator(TurboAuth plugin, ConfigManager configManager) {
+        this.plugin = plugin;
+        this.configManager = configManager;
+        this.playing = new LinkedHashMap<>();
+    }
+
+    public void play(Player player) {
+        int frames = configManager.getGradientFrames().length;
+        if (frames == 0) {
+            return;
+        }
+
+        playing.put(player.getUniqueId(), new Playback(player, tick, frames * Math.max(1, configManager.getGradientRepeat())));
+
+        if (ticker == null) {
+            ticker = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 0L,
+                Math.max(1, configManager.getGradientInterval()));
+        }
+    }
+
+    public void stop(UUID uuid) {
+        playing.remove(uuid);
+    }
+
+    public void stopAll() {
+        playing.clear();
+        if (ticker != null) {
+            ticker.cancel();
+            ticker = null;
+        }
+    }
+
+    private void tick() {
+        Component[] frames = configManager.getGradientFrames();
+
+        Iterator<Playback> iterator = playing.values().iterator();
+        while (iterator.hasNext()) {
+            Playback playback = iterator.next();
+            long frame = tick - playback.start;
+            if (frames.length == 0 || frame >= playback.length || !playback.player.isOnline() ||
+                plugin.getAuthManager().isAuthenticated(playback.player.getUniqueId())) {
+                iterator.remove();
+                continue;
+            }
+
+            playback.player.sendActionBar(frames[(int) (frame % frames.length)]);
+        }
+
+        tick++;
+        if (playing.isEmpty()) {
+            ticker.cancel();
+            ticker = null;
+        }
+    }
+
+    private static final class Playback {
+
+        private final Player player;
+        private final long start;
+        private final int length;
+
+        private Playback(Player player, long start, int length) {
+            this.player = player;
+            this.start = start;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.turboauth.utils;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A configured message parsed once, when the config is loaded, into an
+ * immutable Adventure component. Each {@code {placeholder}} becomes a marker
+ * text node, so rendering only copies the path down to those nodes and
+ * never parses text again.
+ */
+public final class MessageTemplate {
+
+    private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
+    private static final Pattern PLACEHOLDER_NAME = Pattern.compile("[a-z0-9_-]+");
+    private static final char MARKER = '\0';
+    private static final MessageTemplate EMPTY = new MessageTemplate("", Component.empty(), false);
+
+    private static final String[] FORMAT_TAGS = new String[128];
+
+    static {
+        // A legacy color code also ends every format before it, MiniMessage tags stay open until closed
+        String[] tags = {
+            "0<reset><black>", "1<reset><dark_blue>", "2<reset><dark_green>", "3<reset><dark_aqua>",
+            "4<reset><dark_red>", "5<reset><dark_purple>", "6<reset><gold>", "7<reset><gray>",
+            "8<reset><dark_gray>", "9<reset><blue>", "a<reset><green>", "b<reset><aqua>", "c<reset><red>",
+            "d<reset><light_purple>", "e<reset><yellow>", "f<reset><white>", "k<obfuscated>", "l<bold>",
+            "m<strikethrough>", "n<underline>", "o<italic>", "r<reset>"
+        };
+        for (String tag : tags) {
+            FORMAT_TAGS[tag.charAt(0)] = tag.substring(1);
+        }
+    }
+
+    private final String raw;
+    private final Component component;
+    private final boolean hasPlaceholders;
+
+    private MessageTemplate(String raw, Component component, boolean hasPlaceholders) {
+        this.raw = raw;
+        this.component = component;
+        this.hasPlaceholders = hasPlaceholders;
+    }
+
+    public static MessageTemplate compile(String raw) {
+        if (raw == null || raw.isEmpty()) {
+            return EMPTY;
+        }
+
+        String colored = colorize(raw);
+        StringBuilder text = new StringBuilder(colored.length());
+        List<TagResolver> slots = new ArrayList<>();
+
+        int start = 0;
+        int open = colored.indexOf('{');
+        while (open >= 0) {
+            int close = colored.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+
+            String name = colored.substring(open + 1, close);
+            text.append(colored, start, open);
+            if (PLACEHOLDER_NAME.matcher(name).matches()) {
+                text.append('<').append(name).append('>');
+                slots.add(Placeholder.component(name, Component.text(MARKER + name)));
+            } else {
+                text.append(colored, open, close + 1);
+            }
+            start = close + 1;
+            open = colored.indexOf('{', start);
+        }
+        text.append(colored, start, colored.length());
+
+        Component component = slots.isEmpty()
+            ? MINI_MESSAGE.deserialize(text.toString())
+            : MINI_MESSAGE.deserialize(text.toString(), TagResolver.resolver(slots.toArray(new TagResolver[0])));
+        return new MessageTemplate(raw, component, !slots.isEmpty());
+    }
+
+    /**
+     * Renders the message, {@code values} being placeholder name and value
+     * pairs such as {@code "attempts", "3"}. Values are inserted as plain
+     * text and unknown placeholders are kept as written.
+     */
+    public Component render(String... values) {
+        return hasPlaceholders ? fill(component, values) : component;
+    }
+
+    public String getRaw() {
+        return raw;
+    }
+
+    public boolean isBlank() {
+        return raw.isBlank();
+    }
+
+    private static Component fill(Component component, String[] values) {
+        Component result = component;
+        if (component instanceof TextComponent) {
+            String content = ((TextComponent) component).content();
+            if (!content.isEmpty() && content.charAt(0) == MARKER) {
+                String name = content.substring(1);
+                String value = find(name, values);
+                result = ((TextComponent) component).content(value != null ? value : "{" + name + "}");
+            }
+        }
+
+        List<Component> children = component.children();
+        if (children.isEmpty()) {
+            return result;
+        }
+
+        List<Component> filled = new ArrayList<>(children.size());
+        boolean changed = false;
+        for (Component child : children) {
+            Component filledChild = fill(child, values);
+            changed |= filledChild != child;
+            filled.add(filledChild);
+        }
+        return changed ? result.children(filled) : result;
+    }
+
+    private static String find(String placeholder, String[] values) {
+        for (int i = 0; i + 1 < values.length; i += 2) {
+            if (placeholder.equals(values[i])) {
+                return values[i + 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses a message that is not part of the config, such as command
+     * feedback built at runtime. Player input, names and error messages
+     * belong in {@code values} rather than in the message, so tags and codes
+     * inside them are shown as written.
+     */
+    public static Component parse(String message, String... values) {
+        return compile(message).render(values);
+    }
+
+    /**
+     * Turns {@code &} and {@code §} codes into their tags in one pass:
+     * {@code &#rrggbb} becomes {@code <reset><#rrggbb>} and {@code &a}
+     * becomes {@code <reset><green>}. Any other {@code &} is written as
+     * {@code §}.
+     */
+    public static String colorize(String message) {
+        if (message == null) {
+            return "";
+        }
+
+        int first = firstCode(message);
+        if (first < 0) {
+            return message;
+        }
+
+        StringBuilder builder = new StringBuilder(message.length() + 32);
+        builder.append(message, 0, first);
+
+        int length = message.length();
+        for (int i = first; i < length; i++) {
+            char c = message.charAt(i);
+            if (c != '&' && c != '§') {
+                builder.append(c);
+                continue;
+            }
+
+            if (isHexColor(message, i + 1)) {
+                builder.append("<reset><").append(message, i + 1, i + 8).append('>');
+                i += 7;
+                continue;
+            }
+
+            char code = i + 1 < length ? message.charAt(i + 1) : 0;
+            String tag = code < FORMAT_TAGS.length ? FORMAT_TAGS[code] : null;
+            if (tag != null) {
+                builder.append(tag);
+                i++;
+            } else {
+                builder.append('§');
+            }
+        }
+        return builder.toString();
+    }
+
+    private static int firstCode(String message) {
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '&' || c == '§') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isHexColor(String message, int index) {
+        if (index + 7 > message.length() || message.charAt(index) != '#') {
+            return false;
+        }
+
+        for (int i = index + 1; i < index + 7; i++) {
+            char c = message.charAt(i);
+            if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f') && !(c >= 'A' && c <= 'F')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,11 +1,13 @@
 package com.turboauth.utils;
 
 import com.turboauth.config.ConfigManager;
-import net.md_5.bungee.api.ChatMessageType;
-import net.md_5.bungee.api.chat.TextComponent;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.title.Title;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.time.Duration;
+
 public class MessageUtils {
 
     private final ConfigManager configManager;
@@ -15,75 +17,37 @@ public class MessageUtils {
     }
 
     public String colorize(String message) {
-        if (message == null) {
-            return "";
-        }
-
-        message = message.replaceAll("&", "§");
-        message = message.replaceAll("§#([A-Fa-f0-9]{6})", "<#$1>");
-
-        message = message.replaceAll("§0", "<black>");
-        message = message.replaceAll("§1", "<dark_blue>");
-        message = message.replaceAll("§2", "<dark_green>");
-        message = message.replaceAll("§3", "<dark_aqua>");
-        message = message.replaceAll("§4", "<dark_red>");
-        message = message.replaceAll("§5", "<dark_purple>");
-        message = message.replaceAll("§6", "<gold>");
-        message = message.replaceAll("§7", "<gray>");
-        message = message.replaceAll("§8", "<dark_gray>");
-        message = message.replaceAll("§9", "<blue>");
-        message = message.replaceAll("§a", "<green>");
-        message = message.replaceAll("§b", "<aqua>");
-        message = message.replaceAll("§c", "<red>");
-        message = message.replaceAll("§d", "<light_purple>");
-        message = message.replaceAll("§e", "<yellow>");
-        message = message.replaceAll("§f", "<white>");
-
-        message = message.replaceAll("§k", "<obfuscated>");
-        message = message.replaceAll("§l", "<bold>");
-        message = message.replaceAll("§m", "<strikethrough>");
-        message = message.replaceAll("§n", "<underline>");
-        message = message.replaceAll("§o", "<italic>");
-        message = message.replaceAll("§r", "<reset>");
-
-        return message;
+        return MessageTemplate.colorize(message);
     }
 
-    public void sendMessage(Player player, String message) {
-        if (player == null || message == null || message.trim().isEmpty()) {
-            return;
-        }
-
-        String coloredMessage = colorize(message);
-        player.sendMessage(coloredMessage);
+    public Component renderMessage(String path, String... placeholders) {
+        return configManager.getMessageTemplate(path).render(placeholders);
     }
 
-    public void sendMessage(CommandSender sender, String message) {
+    /**
+     * Sends one-off admin feedback, parsed on every call. Anything a player
+     * can trigger belongs in the config and goes through sendConfigMessage.
+     */
+    public void sendMessage(CommandSender sender, String message, String... placeholders) {
         if (sender == null || message == null || message.trim().isEmpty()) {
             return;
         }
 
-        String coloredMessage = colorize(message);
-        sender.sendMessage(coloredMessage);
+        sender.sendMessage(MessageTemplate.parse(message, placeholders));
     }
 
-    public void sendActionBar(Player player, String message) {
-        if (player == null || message == null || message.trim().isEmpty()) {
+    public void sendConfigMessage(CommandSender sender, String path, String... placeholders) {
+        MessageTemplate template = configManager.getMessageTemplate(path);
+        if (sender == null || template.isBlank()) {
             return;
         }
 
-        String coloredMessage = colorize(message);
-        player.spigot().sendMessage(ChatMessageType.ACTION_BAR, TextComponent.fromLegacyText(coloredMessage));
+        sender.sendMessage(template.render(placeholders));
     }
 
-    public void sendTitle(Player player, String title, String subtitle, int fadeIn, int stay, int fadeOut) {
-        if (player == null) {
-            return;
-        }
-
-        if (title != null && !title.trim().isEmpty()) {
-            String coloredTitle = colorize(title);
-            player.sendTitle(coloredTitle, subtitle != null ? colorize(subtitle) : null, fadeIn, stay, fadeOut);
+    public void sendTitle(Player player, Title title) {
+        if (player != null && title != null) {
+            player.showTitle(title);
         }
     }
 
@@ -92,11 +56,7 @@ public class MessageUtils {
             return;
         }
 
-        String message = registered
-            ? configManager.getMessage("messages.join-registered")
-            : configManager.getMessage("messages.join-not-registered");
-
-        sendMessage(player, message);
+        sendConfigMessage(player, registered ? "messages.join-registered" : "messages.join-not-registered");
     }
 
     public void sendReminderMessage(Player player) {
@@ -104,9 +64,13 @@ public class MessageUtils {
             return;
         }
 
-        String message = configManager.getMessage("messages.reminder");
-        sendMessage(player, message);
-        sendActionBar(player, message);
+        MessageTemplate message = configManager.getMessageTemplate("messages.reminder");
+        if (message.isBlank()) {
+            return;
+        }
+
+        player.sendMessage(message.render());
+        player.sendActionBar(message.render());
     }
 
     public void sendSuccessMessage(Player player) {
@@ -114,6 +78,11 @@ public class MessageUtils {
             return;
         }
 
-        sendMessage(player, configManager.getMessage("messages.login-success"));
+        sendConfigMessage(player, "messages.login-success");
+    }
+
+    public static Title.Times times(int fadeInTicks, int stayTicks, int fadeOutTicks) {
+        return Title.Times.times(Duration.ofMillis(fadeInTicks * 50L), Duration.ofMillis(stayTicks * 50L),
+            Duration.ofMillis(fadeOutTicks * 50L));
     }
 }
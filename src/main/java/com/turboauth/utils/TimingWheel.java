@@ -0,0 +1,157 @@
+package com.turboauth.utils;
+
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel. Time is counted in abstract ticks driven by
+ * {@link #advance()}; scheduling and cancelling are O(1), and each tick only
+ * visits the entries of one slot. Delays longer than the wheel are kept for
+ * the required number of extra rounds.
+ */
+public class TimingWheel<T> {
+
+    private final Timeout<T>[] slots;
+    private final Consumer<T> onExpire;
+
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(int wheelSize, Consumer<T> onExpire) {
+        this.slots = new Timeout[Math.max(1, wheelSize)];
+        this.onExpire = onExpire;
+    }
+
+    public synchronized Timeout<T> schedule(T item, long delayTicks) {
+        long deadline = currentTick + Math.max(1, delayTicks);
+        Timeout<T> timeout = new Timeout<>(this, item, deadline);
+        link(timeout, (int) (deadline % slots.length));
+        return timeout;
+    }
+
+    /**
+     * Moves the wheel forward by one tick and hands every entry that is now
+     * due to the expiry callback, outside of the wheel's lock.
+     */
+    public void advance() {
+        Timeout<T> expired = null;
+
+        synchronized (this) {
+            currentTick++;
+            int index = (int) (currentTick % slots.length);
+
+            Timeout<T> timeout = slots[index];
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.deadline <= currentTick) {
+                    unlink(timeout);
+                    timeout.expired = true;
+                    timeout.next = expired;
+                    expired = timeout;
+                }
+                timeout = next;
+            }
+        }
+
+        while (expired != null) {
+            Timeout<T> next = expired.next;
+            expired.next = null;
+            onExpire.accept(expired.item);
+            expired = next;
+        }
+    }
+
+    public synchronized long getCurrentTick() {
+        return currentTick;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            Timeout<T> timeout = slots[i];
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.slot = -1;
+                timeout.prev = null;
+                timeout.next = null;
+                timeout = next;
+            }
+            slots[i] = null;
+        }
+        size = 0;
+    }
+
+    private synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.slot < 0) {
+            return false;
+        }
+
+        unlink(timeout);
+        return true;
+    }
+
+    private void link(Timeout<T> timeout, int slot) {
+        timeout.slot = slot;
+        timeout.next = slots[slot];
+        if (slots[slot] != null) {
+            slots[slot].prev = timeout;
+        }
+        slots[slot] = timeout;
+        size++;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            slots[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+
+        timeout.slot = -1;
+        timeout.prev = null;
+        timeout.next = null;
+        size--;
+    }
+
+    public static final class Timeout<T> {
+
+        private final TimingWheel<T> wheel;
+        private final T item;
+        private final long deadline;
+
+        private int slot;
+        private boolean expired;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(TimingWheel<T> wheel, T item, long deadline) {
+            this.wheel = wheel;
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public boolean isExpired() {
+            synchronized (wheel) {
+                return expired;
+            }
+        }
+
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+    }
+}